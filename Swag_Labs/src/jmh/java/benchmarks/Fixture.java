@@ -0,0 +1,43 @@
+package benchmarks;
+
+import config.Config;
+import drivers.DriverBinaries;
+import drivers.DriverFactory;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+
+/**
+ * Shared setup for the benchmarks: always the embedded Swag Labs stand-in, so numbers do not move
+ * with saucedemo.com's latency, and Chrome built from the suite's own options.
+ */
+final class Fixture {
+
+    private Fixture() {
+    }
+
+    /** Base URL of the local stand-in; starts it on first use in this (forked) JVM. */
+    static String baseUrl() {
+        if (System.getProperty("base.url") == null) {
+            System.setProperty("base.url", Config.LOCAL);
+        }
+        return Config.baseUrl();
+    }
+
+    /** A bare ChromeDriver with the suite's options, binary already resolved. No maximize, no navigation. */
+    static WebDriver newChrome() {
+        DriverBinaries.chromedriver();
+        return new ChromeDriver(DriverFactory.chromeOptions());
+    }
+
+    static void quit(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            // Nothing to measure any more
+        }
+    }
+}
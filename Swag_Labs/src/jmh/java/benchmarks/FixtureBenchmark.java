@@ -0,0 +1,115 @@
+package benchmarks;
+
+import auth.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The fixed costs around a test, step by step: launching Chrome, maximize(), the first get() on a
+ * fresh session, and the cookie login that today's @BeforeMethod preconditions run. Single-shot,
+ * because each step only happens once per session and is far too slow to loop.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FixtureBenchmark {
+
+    /** Collects the driver a benchmark launched so it is quit outside the measurement. */
+    @State(Scope.Thread)
+    public static class Launched {
+        WebDriver driver;
+
+        @TearDown(Level.Invocation)
+        public void quit() {
+            Fixture.quit(driver);
+            driver = null;
+        }
+    }
+
+    /** A fresh session per invocation that has not navigated anywhere yet. */
+    @State(Scope.Thread)
+    public static class FreshSession {
+        WebDriver driver;
+        String baseUrl;
+
+        @Setup(Level.Invocation)
+        public void launch() {
+            baseUrl = Fixture.baseUrl();
+            driver = Fixture.newChrome();
+        }
+
+        @TearDown(Level.Invocation)
+        public void quit() {
+            Fixture.quit(driver);
+        }
+    }
+
+    /** One session for the whole trial, put back into the state the pool hands out before each call. */
+    @State(Scope.Thread)
+    public static class PooledSession {
+        WebDriver driver;
+        String baseUrl;
+
+        @Setup(Level.Trial)
+        public void launch() {
+            baseUrl = Fixture.baseUrl();
+            driver = Fixture.newChrome();
+        }
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            driver.get(baseUrl);
+            driver.manage().deleteAllCookies();
+            driver.manage().window().setSize(new Dimension(800, 600));
+        }
+
+        @TearDown(Level.Trial)
+        public void quit() {
+            Fixture.quit(driver);
+        }
+    }
+
+    @Benchmark
+    public WebDriver coldDriverCreation(Launched launched) {
+        launched.driver = Fixture.newChrome();
+        return launched.driver;
+    }
+
+    @Benchmark
+    public void maximize(PooledSession session) {
+        session.driver.manage().window().maximize();
+    }
+
+    @Benchmark
+    public void firstGet(FreshSession session) {
+        session.driver.get(session.baseUrl);
+    }
+
+    /** AuthService.login plus the inventory wait every @BeforeMethod does. */
+    @Benchmark
+    public void loginPrecondition(PooledSession session) {
+        AuthService.login(session.driver);
+        new WebDriverWait(session.driver, Duration.ofSeconds(10))
+                .until(ExpectedConditions.visibilityOfElementLocated(By.className("inventory_list")));
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import auth.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@code findElement} round trip per locator strategy the suite uses, on the logged-in
+ * inventory page of the local stand-in. Every locator resolves to an element, so the numbers
+ * compare lookup cost rather than implicit-wait behaviour.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocatorBenchmark {
+
+    /** The locators as written in the test classes, targeting the Sauce Labs Backpack row. */
+    public enum SuiteLocator {
+        // HomeTests, SidebarTests: add/remove buttons by id
+        ID(By.id("add-to-cart-sauce-labs-backpack")),
+        // HomeTests, IntegrationTests: product names
+        CLASS_NAME(By.className("inventory_item_name")),
+        // addToCartXPathTemplate in IntegrationTests, SystemTests, CheckoutTests and CartTests
+        XPATH_ANCESTOR(By.xpath("//div[text()='Sauce Labs Backpack']/ancestor::div[@class='inventory_item']"
+                + "//button[contains(text(), 'Add to cart')]")),
+        // addToCartXPath in EndToEndTests (same shape, no space after the comma)
+        XPATH_ANCESTOR_E2E(By.xpath("//div[text()='Sauce Labs Backpack']/ancestor::div[@class='inventory_item']"
+                + "//button[contains(text(),'Add to cart')]")),
+        // productLinkTemplate in ProductDetailTests and ProductDetailTests_2
+        XPATH_LINK_CONTAINS(By.xpath("//a[contains(., 'Sauce Labs Backpack')]")),
+        // addToCartButton in ProductDetailTests and ProductDetailTests_2
+        CSS_COMPOUND(By.cssSelector("button.btn.btn_primary.btn_small.btn_inventory"));
+
+        private final By by;
+
+        SuiteLocator(By by) {
+            this.by = by;
+        }
+    }
+
+    @Param({"ID", "CLASS_NAME", "XPATH_ANCESTOR", "XPATH_ANCESTOR_E2E", "XPATH_LINK_CONTAINS", "CSS_COMPOUND"})
+    public String locator;
+
+    private WebDriver driver;
+    private By by;
+
+    @Setup
+    public void setUp() {
+        Fixture.baseUrl();
+        driver = Fixture.newChrome();
+        AuthService.login(driver);
+        new WebDriverWait(driver, Duration.ofSeconds(10))
+                .until(ExpectedConditions.visibilityOfElementLocated(By.className("inventory_list")));
+        by = SuiteLocator.valueOf(locator).by;
+    }
+
+    @Benchmark
+    public WebElement findElement() {
+        return driver.findElement(by);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixture.quit(driver);
+    }
+}
@@ -0,0 +1,139 @@
+package artifacts;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes {@link FailureBundle}s to disk on one background thread, each as a zip with text entries
+ * compressed and images stored, so the test thread only pays for taking the capture.
+ *
+ * <p>Queued bundles may hold at most {@code maxQueuedBytes} of heap. When a mass failure outruns
+ * the disk, {@link #offer} turns new bundles away (and {@link #accepting()} tells the capturer
+ * not to take them in the first place) rather than blocking the next test or growing without
+ * bound; each refusal is counted and reported by {@link #flush}.
+ */
+public final class ArtifactWriter {
+
+    private static final Logger LOG = LogManager.getLogger(ArtifactWriter.class);
+
+    private final Path dir;
+    private final long maxQueuedBytes;
+    private final BlockingQueue<FailureBundle> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private long queuedBytes;
+    private int inFlight;
+
+    public ArtifactWriter(Path dir, long maxQueuedBytes) {
+        this.dir = dir;
+        this.maxQueuedBytes = maxQueuedBytes;
+        Thread.ofPlatform().daemon().name("artifact-writer").start(this::drain);
+    }
+
+    /** Whether anything is left of the memory cap; capturing is pointless while it is spent. */
+    public synchronized boolean accepting() {
+        return queuedBytes < maxQueuedBytes;
+    }
+
+    /** Queues {@code bundle} for writing; returns false, without blocking, when it does not fit. */
+    public boolean offer(FailureBundle bundle) {
+        long size = bundle.size();
+        synchronized (this) {
+            if (queuedBytes + size > maxQueuedBytes) {
+                dropped.incrementAndGet();
+                LOG.warn("Dropped failure artifacts for {}: {} KB queued, cap is {} KB",
+                        bundle.test(), queuedBytes / 1024, maxQueuedBytes / 1024);
+                return false;
+            }
+            queuedBytes += size;
+            inFlight++;
+        }
+        queue.add(bundle);
+        return true;
+    }
+
+    /** Waits up to {@code timeout} for every queued bundle to be written. */
+    public synchronized void flush(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight > 0) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                LOG.warn("{} failure artifact bundles still unwritten after {} s", inFlight, timeout.toSeconds());
+                break;
+            }
+            wait(Math.max(1, left / 1_000_000));
+        }
+        if (written.get() > 0 || dropped.get() > 0) {
+            LOG.info("Failure artifacts: {} written to {}, {} dropped at the memory cap", written.get(), dir, dropped.get());
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            FailureBundle bundle;
+            try {
+                bundle = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                write(bundle);
+                written.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Could not write failure artifacts for {}: {}", bundle.test(), e.getMessage());
+            }
+            synchronized (this) {
+                queuedBytes -= bundle.size();
+                inFlight--;
+                notifyAll();
+            }
+        }
+    }
+
+    private void write(FailureBundle bundle) throws IOException {
+        Files.createDirectories(dir);
+        Path file = uniqueFile(bundle.test());
+        try (OutputStream out = Files.newOutputStream(file);
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.setLevel(Deflater.BEST_SPEED);
+            for (Map.Entry<String, byte[]> entry : bundle.files().entrySet()) {
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                if (entry.getKey().endsWith(".png")) {
+                    // Already compressed; deflating again costs time for nothing
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(entry.getValue().length);
+                    CRC32 crc = new CRC32();
+                    crc.update(entry.getValue());
+                    zipEntry.setCrc(crc.getValue());
+                }
+                zip.putNextEntry(zipEntry);
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private Path uniqueFile(String test) {
+        String base = test.replaceAll("[^A-Za-z0-9._-]", "_");
+        Path file = dir.resolve(base + ".zip");
+        // Data-driven tests and retries fail under the same name
+        for (int i = 2; Files.exists(file); i++) {
+            file = dir.resolve(base + "-" + i + ".zip");
+        }
+        return file;
+    }
+}
@@ -0,0 +1,122 @@
+package artifacts;
+
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Captures what a failed test left in the browser: a screenshot, the page source, the URL and the
+ * browser console. On the test thread that is just three commands: the screenshot, one script for
+ * the URL and DOM, and the console entries Chrome has buffered. Everything else, compression
+ * included, happens on the {@link ArtifactWriter} thread. Bundles land in
+ * {@code <output.dir>/failures/<test>.zip}.
+ */
+public final class FailureArtifacts {
+
+    private static final Logger LOG = LogManager.getLogger(FailureArtifacts.class);
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String PAGE_SCRIPT =
+            "return {url: location.href, html: document.documentElement ? document.documentElement.outerHTML : ''};";
+
+    private static volatile ArtifactWriter writer;
+
+    private FailureArtifacts() {
+    }
+
+    /** Captures {@code driver}'s state for {@code test} and queues it; never throws. */
+    public static void capture(String test, WebDriver driver, Throwable failure) {
+        ArtifactWriter out = writer();
+        if (!out.accepting()) {
+            LOG.warn("Skipping failure artifacts for {}: writer is at its memory cap", test);
+            return;
+        }
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        try {
+            files.put("screenshot.png", ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+        } catch (WebDriverException | ClassCastException e) {
+            LOG.debug("No screenshot for {}: {}", test, e.getMessage());
+        }
+        String url = "";
+        try {
+            if (((JavascriptExecutor) driver).executeScript(PAGE_SCRIPT) instanceof Map<?, ?> page) {
+                url = String.valueOf(page.get("url"));
+                files.put("page.html", utf8(String.valueOf(page.get("html"))));
+            }
+        } catch (WebDriverException e) {
+            LOG.debug("No page source for {}: {}", test, e.getMessage());
+            url = currentUrl(driver);
+        }
+        StringBuilder console = new StringBuilder();
+        try {
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                console.append(Instant.ofEpochMilli(entry.getTimestamp())).append(' ')
+                        .append(entry.getLevel()).append(' ').append(entry.getMessage()).append('\n');
+            }
+        } catch (WebDriverException | UnsupportedOperationException e) {
+            console.append("(browser console not available: ").append(e.getClass().getSimpleName()).append(")\n");
+        }
+        files.put("console.log", utf8(console.toString()));
+        files.put("failure.txt", utf8("test: " + test + "\nurl: " + url + "\n\n" + stackTrace(failure)));
+        out.offer(new FailureBundle(test, files));
+    }
+
+    /** Waits for queued bundles to reach the disk; call once the suite is done. */
+    public static void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush(FLUSH_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ArtifactWriter writer() {
+        if (writer == null) {
+            synchronized (FailureArtifacts.class) {
+                if (writer == null) {
+                    writer = new ArtifactWriter(Config.outputDir().resolve("failures"), Config.artifactsMaxQueuedBytes());
+                }
+            }
+        }
+        return writer;
+    }
+
+    private static String currentUrl(WebDriver driver) {
+        try {
+            return driver.getCurrentUrl();
+        } catch (WebDriverException e) {
+            return "";
+        }
+    }
+
+    private static String stackTrace(Throwable failure) {
+        if (failure == null) {
+            return "";
+        }
+        StringWriter trace = new StringWriter();
+        failure.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
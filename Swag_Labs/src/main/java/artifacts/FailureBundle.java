@@ -0,0 +1,16 @@
+package artifacts;
+
+import java.util.Map;
+
+/**
+ * Everything captured from the browser when a test fails, held in memory until
+ * {@link ArtifactWriter} has written it. {@code files} maps entry names ({@code screenshot.png},
+ * {@code page.html}, ...) to their bytes.
+ */
+public record FailureBundle(String test, Map<String, byte[]> files) {
+
+    /** Heap the bundle holds on to while queued. */
+    public long size() {
+        return files.values().stream().mapToLong(bytes -> bytes.length).sum();
+    }
+}
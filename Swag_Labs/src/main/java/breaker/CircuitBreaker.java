@@ -0,0 +1,122 @@
+package breaker;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.SkipException;
+
+import java.time.Duration;
+
+/**
+ * Stops running a precondition that keeps failing. Closed, it runs every call and counts
+ * consecutive failures; after {@code threshold} of them it opens and every call is skipped at
+ * once with a {@link SkipException}, so the tests behind it are reported as skipped without
+ * launching a browser or waiting out a timeout. Once {@code halfOpenAfter} has passed, the next
+ * call is let through as a probe (half-open): success closes the breaker, failure opens it for
+ * another period. Other calls keep being skipped while the probe runs.
+ */
+public final class CircuitBreaker {
+
+    private static final Logger LOG = LogManager.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int threshold;
+    private final Duration halfOpenAfter;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private String lastFailure;
+    private int trips;
+    private int skipped;
+
+    /** A {@code threshold} of 0 disables the breaker: every call runs. */
+    public CircuitBreaker(String name, int threshold, Duration halfOpenAfter) {
+        this.name = name;
+        this.threshold = threshold;
+        this.halfOpenAfter = halfOpenAfter;
+    }
+
+    /** Runs {@code action}, or throws {@link SkipException} without running it while open. */
+    public void run(Runnable action) {
+        boolean probe = acquire();
+        try {
+            action.run();
+        } catch (SkipException e) {
+            // Skipped by something else (another breaker); says nothing about this precondition
+            abandon(probe);
+            throw e;
+        } catch (Throwable e) {
+            // Anything else counts as a failure, so a probe can never leave the breaker half-open
+            failed(probe, e);
+            throw e;
+        }
+        succeeded(probe);
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /** How many times the breaker has opened. */
+    public synchronized int trips() {
+        return trips;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s (%d trips, %d calls skipped%s)", state, trips, skipped,
+                lastFailure == null ? "" : ", last failure: " + lastFailure);
+    }
+
+    private synchronized boolean acquire() {
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.OPEN && System.nanoTime() - openedAt >= halfOpenAfter.toNanos()) {
+            state = State.HALF_OPEN;
+            LOG.info("Precondition '{}' breaker half-open, probing", name);
+            return true;
+        }
+        skipped++;
+        long retryIn = Math.max(0, halfOpenAfter.toNanos() - (System.nanoTime() - openedAt)) / 1_000_000_000;
+        throw new SkipException("Precondition '" + name + "' is failing (" + consecutiveFailures
+                + " consecutive failures, last: " + lastFailure + "); skipped, re-probing in " + retryIn + " s");
+    }
+
+    private synchronized void succeeded(boolean probe) {
+        consecutiveFailures = 0;
+        if (probe) {
+            state = State.CLOSED;
+            LOG.info("Precondition '{}' recovered, breaker closed", name);
+        }
+    }
+
+    private synchronized void failed(boolean probe, Throwable failure) {
+        consecutiveFailures++;
+        lastFailure = failure.getClass().getSimpleName() + ": " + firstLine(failure.getMessage());
+        if (threshold > 0 && (probe || (state == State.CLOSED && consecutiveFailures >= threshold))) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trips++;
+            LOG.warn("Precondition '{}' failed {} times in a row, skipping dependent tests for {} s: {}",
+                    name, consecutiveFailures, halfOpenAfter.toSeconds(), lastFailure);
+        }
+    }
+
+    private synchronized void abandon(boolean probe) {
+        if (probe) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+}
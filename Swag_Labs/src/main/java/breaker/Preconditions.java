@@ -0,0 +1,46 @@
+package breaker;
+
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suite-wide {@link CircuitBreaker}s for the steps most tests depend on. Wrapping a precondition,
+ * e.g. {@code Preconditions.check(Preconditions.LOGIN, () -> ...)} in a @BeforeMethod, means that
+ * once it has failed {@link Config#breakerThreshold()} times in a row the remaining tests that
+ * need it are skipped straight away instead of each failing the same way.
+ */
+public final class Preconditions {
+
+    public static final String LOGIN = "login";
+    public static final String ADD_TO_CART = "add-to-cart";
+    public static final String CHECKOUT_START = "checkout-start";
+
+    private static final Logger LOG = LogManager.getLogger(Preconditions.class);
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private Preconditions() {
+    }
+
+    /** Runs {@code action} through the breaker named {@code name}. */
+    public static void check(String name, Runnable action) {
+        breaker(name).run(action);
+    }
+
+    public static CircuitBreaker breaker(String name) {
+        return BREAKERS.computeIfAbsent(name,
+                key -> new CircuitBreaker(key, Config.breakerThreshold(), Config.breakerHalfOpenAfter()));
+    }
+
+    /** Logs every breaker that tripped during the run. */
+    public static void report() {
+        BREAKERS.forEach((name, breaker) -> {
+            if (breaker.trips() > 0) {
+                LOG.info("Precondition '{}': {}", name, breaker);
+            }
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package checkpoints;
+
+import java.util.List;
+
+import static checkpoints.FlowStep.ADD_BACKPACK;
+import static checkpoints.FlowStep.CHECKOUT;
+import static checkpoints.FlowStep.FILL_INFO;
+import static checkpoints.FlowStep.LOGIN;
+import static checkpoints.FlowStep.OPEN_CART;
+
+/**
+ * Named points in the purchase flow that tests can start from with {@link StartsAt} or
+ * {@link Checkpoints#restore(org.openqa.selenium.WebDriver, Checkpoint)}. Each is just a
+ * {@link FlowStep} sequence; tests that declare the same steps with {@link Flow} share the same
+ * snapshots.
+ */
+public enum Checkpoint {
+
+    LOGGED_IN("logged-in", LOGIN),
+    CART_WITH_BACKPACK("cart-with-backpack", LOGIN, ADD_BACKPACK, OPEN_CART),
+    CHECKOUT_STEP_ONE("checkout-step-one", LOGIN, ADD_BACKPACK, OPEN_CART, CHECKOUT),
+    CHECKOUT_STEP_TWO("checkout-step-two", LOGIN, ADD_BACKPACK, OPEN_CART, CHECKOUT, FILL_INFO);
+
+    private final String id;
+    private final List<FlowStep> steps;
+
+    Checkpoint(String id, FlowStep... steps) {
+        this.id = id;
+        this.steps = List.of(steps);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public List<FlowStep> steps() {
+        return steps;
+    }
+}
@@ -0,0 +1,282 @@
+package checkpoints;
+
+import auth.AuthService;
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Saves and restores app state after a sequence of {@link FlowStep}s: the cookies, the
+ * localStorage entries (Swag Labs keeps the cart in {@code cart-contents}) and the page the steps
+ * ended on.
+ *
+ * <p>{@link #advance} resumes from the longest prefix that has a snapshot, with one script that
+ * writes cookies and storage plus one navigation, and only replays the steps after it. Snapshots
+ * are kept under {@code target/checkpoints} so later runs reuse them, and each carries a
+ * fingerprint of the code that built it ({@link FlowStep}, {@link AuthService}), the target site
+ * and the login user. A snapshot whose fingerprint no longer matches is ignored and rebuilt, so
+ * after an edit to a step the flow goes through the UI once before it is restored again.
+ * {@link #replay} drives every step regardless, for tests that must exercise the UI each run.
+ */
+public final class Checkpoints {
+
+    private static final Logger LOG = LogManager.getLogger(Checkpoints.class);
+    private static final Json JSON = new Json();
+
+    private static final String CAPTURE_SCRIPT =
+            "var storage = {};"
+            + "for (var i = 0; i < localStorage.length; i++) {"
+            + "  var key = localStorage.key(i); storage[key] = localStorage.getItem(key);"
+            + "}"
+            + "return {url: location.href, cookies: document.cookie, storage: storage};";
+
+    private static final String APPLY_SCRIPT =
+            "var base = arguments[0], cookies = arguments[1], storage = arguments[2];"
+            + "if (location.href.indexOf(base) !== 0) { return false; }"
+            + "localStorage.clear(); sessionStorage.clear();"
+            + "Object.keys(storage).forEach(function (key) { localStorage.setItem(key, storage[key]); });"
+            + "Object.keys(cookies).forEach(function (name) {"
+            + "  document.cookie = name + '=' + cookies[name] + '; path=/';"
+            + "});"
+            + "return true;";
+
+    // Any edit to a flow step or to the cookie login changes these bytes
+    private static final byte[] CODE_HASH = codeHash(FlowStep.class, AuthService.class);
+
+    private static final Map<List<FlowStep>, Snapshot> CACHE = new ConcurrentHashMap<>();
+    private static final Map<List<FlowStep>, Object> BUILDING = new ConcurrentHashMap<>();
+    private static final AtomicLong STEPS_RUN = new AtomicLong();
+    private static final AtomicLong RESTORES = new AtomicLong();
+
+    private Checkpoints() {
+    }
+
+    /** State captured after a step sequence; {@code path} is relative to {@link Config#baseUrl()}. */
+    record Snapshot(String fingerprint, String path, Map<String, String> cookies, Map<String, String> storage) {
+    }
+
+    /** Leaves {@code driver} on the checkpoint's page with its cookies and storage in place. */
+    public static void restore(WebDriver driver, Checkpoint checkpoint) {
+        advance(driver, checkpoint.steps(), prefix -> true);
+    }
+
+    /**
+     * Puts a session that is sitting on the base URL through {@code steps}: restores the longest
+     * prefix for which {@code snapshotAt} holds and a snapshot exists, then runs the remaining
+     * steps, saving a snapshot after each one {@code snapshotAt} accepts.
+     *
+     * <p>Each missing snapshot is built under a lock of its own, so a thread that needs a snapshot
+     * another thread is building waits for it and restores it rather than building it again.
+     */
+    public static void advance(WebDriver driver, List<FlowStep> steps, Predicate<List<FlowStep>> snapshotAt) {
+        int done = 0;
+        for (int length = steps.size(); length > 0; length--) {
+            List<FlowStep> prefix = steps.subList(0, length);
+            if (snapshotAt.test(prefix)) {
+                Snapshot snapshot = lookup(prefix);
+                if (snapshot != null) {
+                    apply(driver, snapshot);
+                    RESTORES.incrementAndGet();
+                    done = length;
+                    break;
+                }
+            }
+        }
+        for (int length = done + 1; length <= steps.size(); length++) {
+            List<FlowStep> prefix = List.copyOf(steps.subList(0, length));
+            if (!snapshotAt.test(prefix)) {
+                continue;
+            }
+            synchronized (BUILDING.computeIfAbsent(prefix, key -> new Object())) {
+                Snapshot snapshot = lookup(prefix);
+                if (snapshot != null) {
+                    apply(driver, snapshot);
+                    RESTORES.incrementAndGet();
+                } else {
+                    run(driver, steps, done, length, snapshotAt);
+                }
+            }
+            done = length;
+        }
+        run(driver, steps, done, steps.size(), snapshotAt);
+    }
+
+    /**
+     * Runs every one of {@code steps} through the UI, whatever snapshots exist, still saving one
+     * after each step {@code snapshotAt} accepts so tests that only need the state can resume there.
+     */
+    public static void replay(WebDriver driver, List<FlowStep> steps, Predicate<List<FlowStep>> snapshotAt) {
+        run(driver, steps, 0, steps.size(), snapshotAt);
+    }
+
+    /** Steps actually executed by {@link #advance} and {@link #replay} in this JVM. */
+    public static long stepsRun() {
+        return STEPS_RUN.get();
+    }
+
+    /** Snapshots applied by {@link #advance} in this JVM. */
+    public static long restores() {
+        return RESTORES.get();
+    }
+
+    private static void run(WebDriver driver, List<FlowStep> steps, int from, int to, Predicate<List<FlowStep>> snapshotAt) {
+        for (int i = from; i < to; i++) {
+            steps.get(i).run(driver);
+            STEPS_RUN.incrementAndGet();
+            List<FlowStep> prefix = List.copyOf(steps.subList(0, i + 1));
+            if (snapshotAt.test(prefix)) {
+                Snapshot snapshot = capture(driver, fingerprint(prefix));
+                CACHE.put(prefix, snapshot);
+                save(prefix, snapshot);
+                LOG.debug("Saved checkpoint {}", idOf(prefix));
+            }
+        }
+    }
+
+    private static Snapshot lookup(List<FlowStep> prefix) {
+        String fingerprint = fingerprint(prefix);
+        Snapshot snapshot = CACHE.get(prefix);
+        if (snapshot != null && snapshot.fingerprint().equals(fingerprint)) {
+            return snapshot;
+        }
+        snapshot = load(prefix, fingerprint);
+        if (snapshot != null) {
+            CACHE.put(List.copyOf(prefix), snapshot);
+        }
+        return snapshot;
+    }
+
+    private static void apply(WebDriver driver, Snapshot snapshot) {
+        String baseUrl = Config.baseUrl();
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        // Storage and cookies can only be written from a page on the site's origin
+        if (!Boolean.TRUE.equals(js.executeScript(APPLY_SCRIPT, baseUrl, snapshot.cookies(), snapshot.storage()))) {
+            driver.get(baseUrl);
+            js.executeScript(APPLY_SCRIPT, baseUrl, snapshot.cookies(), snapshot.storage());
+        }
+        driver.get(baseUrl + snapshot.path());
+    }
+
+    private static Snapshot capture(WebDriver driver, String fingerprint) {
+        Map<?, ?> state = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        String url = (String) state.get("url");
+        String baseUrl = Config.baseUrl();
+        String path = url.startsWith(baseUrl) ? url.substring(baseUrl.length()) : "";
+
+        Map<String, String> cookies = new LinkedHashMap<>();
+        for (String pair : ((String) state.get("cookies")).split(";\\s*")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                cookies.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return new Snapshot(fingerprint, path, cookies, strings(state.get("storage")));
+    }
+
+    private static Map<String, String> strings(Object map) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (map instanceof Map<?, ?> entries) {
+            entries.forEach((key, value) -> result.put(String.valueOf(key), String.valueOf(value)));
+        }
+        return result;
+    }
+
+    private static Snapshot load(List<FlowStep> prefix, String fingerprint) {
+        Path file = fileOf(prefix);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            Map<String, Object> saved = JSON.toType(Files.readString(file), Json.MAP_TYPE);
+            if (fingerprint.equals(saved.get("fingerprint"))) {
+                return new Snapshot(fingerprint, (String) saved.get("path"),
+                        strings(saved.get("cookies")), strings(saved.get("storage")));
+            }
+            LOG.info("Checkpoint {} is out of date, rebuilding it", idOf(prefix));
+        } catch (IOException | JsonException e) {
+            LOG.warn("Ignoring unreadable checkpoint {}: {}", file, e.getMessage());
+        }
+        return null;
+    }
+
+    private static void save(List<FlowStep> prefix, Snapshot snapshot) {
+        Path file = fileOf(prefix);
+        try {
+            Files.createDirectories(file.getParent());
+            Path partial = Files.createTempFile(file.getParent(), "checkpoint", ".part");
+            Map<String, Object> saved = new LinkedHashMap<>();
+            saved.put("steps", prefix.stream().map(FlowStep::id).toList());
+            saved.put("fingerprint", snapshot.fingerprint());
+            saved.put("path", snapshot.path());
+            saved.put("cookies", snapshot.cookies());
+            saved.put("storage", snapshot.storage());
+            Files.writeString(partial, JSON.toJson(saved));
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Could not save checkpoint {}: {}", idOf(prefix), e.getMessage());
+        }
+    }
+
+    private static Path fileOf(List<FlowStep> prefix) {
+        return Config.outputDir().resolve("checkpoints").resolve(idOf(prefix) + ".json");
+    }
+
+    static String idOf(List<FlowStep> steps) {
+        return steps.stream().map(FlowStep::id).collect(Collectors.joining("+"));
+    }
+
+    /**
+     * Hash of everything that shapes the snapshot: the steps and their code, the site (host and
+     * path only, so the embedded server's random port does not invalidate it) and the user.
+     */
+    static String fingerprint(List<FlowStep> steps) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(idOf(steps).getBytes(StandardCharsets.UTF_8));
+            URI site = URI.create(Config.baseUrl());
+            digest.update((site.getHost() + site.getPath() + "|" + Config.loginUser()).getBytes(StandardCharsets.UTF_8));
+            digest.update(CODE_HASH);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] codeHash(Class<?>... classes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Class<?> type : classes) {
+                try (InputStream in = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+                    if (in != null) {
+                        digest.update(in.readAllBytes());
+                    }
+                }
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("Could not fingerprint checkpoint code", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package checkpoints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The UI steps a test needs before its own assertions, in order. The flow scheduler
+ * ({@code listeners.FlowScheduler}) puts the session through them before the test body runs,
+ * restoring the longest prefix another test (or an earlier run) has already built instead of replaying it.
+ * One end-to-end journey sets {@link #replay()} so the steps go through the UI on every run.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Flow {
+
+    FlowStep[] value();
+
+    /** Runs all of the steps through the UI instead of resuming from a snapshot. */
+    boolean replay() default false;
+}
@@ -0,0 +1,81 @@
+package checkpoints;
+
+import auth.AuthService;
+import breaker.Preconditions;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.Select;
+import waits.EventDrivenWait;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * The UI steps tests can declare with {@link Flow}. Each step starts from wherever the previous one
+ * left the session and waits for the page it leads to, so a sequence of steps can be replayed, or
+ * resumed from a snapshot, without any test code in between.
+ *
+ * <p>All step code lives in this class on purpose: its bytecode is part of every snapshot
+ * fingerprint (see {@link Checkpoints}), so editing a step invalidates the snapshots built with it.
+ */
+public enum FlowStep {
+
+    LOGIN("login", Preconditions.LOGIN, driver -> {
+        AuthService.login(driver);
+        visible(driver, By.className("inventory_list"));
+    }),
+    SORT_A_TO_Z("sort-a-to-z", null, driver ->
+            new Select(visible(driver, By.className("product_sort_container"))).selectByValue("az")),
+    ADD_BACKPACK("add-backpack", Preconditions.ADD_TO_CART, driver -> click(driver, By.id("add-to-cart-sauce-labs-backpack"))),
+    ADD_BIKE_LIGHT("add-bike-light", Preconditions.ADD_TO_CART, driver -> click(driver, By.id("add-to-cart-sauce-labs-bike-light"))),
+    OPEN_CART("open-cart", null, driver -> {
+        click(driver, By.className("shopping_cart_link"));
+        visible(driver, By.className("cart_list"));
+    }),
+    CHECKOUT("checkout", Preconditions.CHECKOUT_START, driver -> {
+        click(driver, By.id("checkout"));
+        visible(driver, By.id("first-name"));
+    }),
+    FILL_INFO("fill-info", null, driver -> {
+        driver.findElement(By.id("first-name")).sendKeys("Mohamed");
+        driver.findElement(By.id("last-name")).sendKeys("Ali");
+        driver.findElement(By.id("postal-code")).sendKeys("12345");
+        click(driver, By.id("continue"));
+        visible(driver, By.id("finish"));
+    });
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final String id;
+    private final String precondition;
+    private final Consumer<WebDriver> action;
+
+    /** {@code precondition} names the {@link Preconditions} breaker guarding the step, if any. */
+    FlowStep(String id, String precondition, Consumer<WebDriver> action) {
+        this.id = id;
+        this.precondition = precondition;
+        this.action = action;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    void run(WebDriver driver) {
+        if (precondition == null) {
+            action.accept(driver);
+        } else {
+            Preconditions.check(precondition, () -> action.accept(driver));
+        }
+    }
+
+    private static void click(WebDriver driver, By locator) {
+        new EventDrivenWait(driver, TIMEOUT).until(ExpectedConditions.elementToBeClickable(locator)).click();
+    }
+
+    private static WebElement visible(WebDriver driver, By locator) {
+        return new EventDrivenWait(driver, TIMEOUT).until(ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+}
@@ -0,0 +1,19 @@
+package checkpoints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Starts a test from a named {@link Checkpoint} instead of listing its steps with {@link Flow}. The
+ * flow scheduler ({@code listeners.FlowScheduler}) restores it with
+ * {@link Checkpoints#restore(org.openqa.selenium.WebDriver, Checkpoint)} before the test body runs,
+ * building it through the UI when no saved snapshot is up to date.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface StartsAt {
+
+    Checkpoint value();
+}
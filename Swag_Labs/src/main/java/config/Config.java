@@ -0,0 +1,264 @@
+package config;
+
+import drivers.ResourceClass;
+import load.Journey;
+import server.SwagLabsServer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Central place for run-time settings shared by the framework and the test classes.
+ * Every value can be overridden with a JVM system property, e.g. {@code -Dpool.max=4}.
+ */
+public final class Config {
+
+    public static final String SAUCEDEMO_URL = "https://www.saucedemo.com/";
+    public static final String LOCAL = "local";
+    public static final String STANDARD_USER = "standard_user";
+    public static final String BROWSER_PROFILE_FULL = "full";
+    public static final String BROWSER_PROFILE_LEAN = "lean";
+    public static final String PERF_BUDGETS_ENFORCE = "enforce";
+    public static final String PERF_BUDGETS_REPORT = "report";
+    public static final String JS_ERRORS_FAIL = "fail";
+    public static final String JS_ERRORS_REPORT = "report";
+    public static final String JS_ERRORS_OFF = "off";
+
+    private Config() {
+    }
+
+    /**
+     * Site under test (-Dbase.url). Defaults to the public SauceDemo; {@code local} starts the
+     * embedded {@link SwagLabsServer} and targets it, so the suite runs offline.
+     */
+    public static String baseUrl() {
+        String value = System.getProperty("base.url", SAUCEDEMO_URL).trim();
+        if (LOCAL.equalsIgnoreCase(value)) {
+            return SwagLabsServer.shared().baseUrl();
+        }
+        return value.endsWith("/") ? value : value + "/";
+    }
+
+    /** Account the cookie login signs in as (-Dlogin.user), e.g. performance_glitch_user. */
+    public static String loginUser() {
+        return System.getProperty("login.user", STANDARD_USER);
+    }
+
+    /** Sessions the pool launches up front and keeps alive (-Dpool.min). */
+    public static int poolMinSize() {
+        return intProperty("pool.min", 1);
+    }
+
+    /** Upper bound on live browser sessions, idle or checked out (-Dpool.max). */
+    public static int poolMaxSize() {
+        return intProperty("pool.max", Math.max(poolMinSize(), Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Spare sessions launched and reset in the background while tests run, so the next test finds
+     * one ready (-Dpool.lookahead); each costs a browser's memory. 0 launches and resets on demand.
+     */
+    public static int poolLookahead() {
+        return intProperty("pool.lookahead", 1);
+    }
+
+    /**
+     * Isolated browser contexts one Chrome process hosts (-Dbrowser.contexts). 1 (default) gives
+     * every pooled session a Chrome of its own; N shares each Chrome among up to N sessions.
+     */
+    public static int browserContexts() {
+        return intProperty("browser.contexts", 1);
+    }
+
+    /**
+     * {@code full} (default) runs a maximized, headed Chrome that downloads everything; {@code lean}
+     * runs headless at a fixed viewport and blocks {@link #blockedResources()} (-Dbrowser.profile).
+     */
+    public static String browserProfile() {
+        String value = System.getProperty("browser.profile", BROWSER_PROFILE_FULL).trim().toLowerCase(Locale.ROOT);
+        if (!BROWSER_PROFILE_FULL.equals(value) && !BROWSER_PROFILE_LEAN.equals(value)) {
+            throw new IllegalArgumentException("System property 'browser.profile' must be 'full' or 'lean' but was '" + value + "'");
+        }
+        return value;
+    }
+
+    /** Resource classes the lean profile blocks, comma separated (-Dlean.block=images,fonts). */
+    public static Set<ResourceClass> blockedResources() {
+        String value = System.getProperty("lean.block", "images,fonts,media,third-party");
+        Set<ResourceClass> classes = EnumSet.noneOf(ResourceClass.class);
+        for (String name : value.split(",")) {
+            if (!name.isBlank()) {
+                classes.add(ResourceClass.fromName(name));
+            }
+        }
+        return classes;
+    }
+
+    /** Directory for reports the framework writes next to TestNG's (-Doutput.dir). */
+    public static Path outputDir() {
+        return Path.of(System.getProperty("output.dir", "target"));
+    }
+
+    /** Where resolved driver binaries and their manifest are kept between runs (-Ddriver.cache.dir). */
+    public static Path driverCacheDir() {
+        String value = System.getProperty("driver.cache.dir");
+        if (value == null || value.isBlank()) {
+            return Path.of(System.getProperty("user.home"), ".cache", "swag-labs", "drivers");
+        }
+        return Path.of(value.trim());
+    }
+
+    /** How long a cached driver binary is trusted before its version is resolved again (-Ddriver.cache.ttlHours). */
+    public static Duration driverCacheTtl() {
+        return Duration.ofHours(intProperty("driver.cache.ttlHours", 24));
+    }
+
+    /** Immediate reruns of a failed test on a warm pooled session before it counts as failed (-Dflake.retries). */
+    public static int flakeRetries() {
+        return intProperty("flake.retries", 1);
+    }
+
+    /** Per-test flake rates across runs (-Dflake.db); see {@link flaky.FlakeDb}. */
+    public static Path flakeDb() {
+        String value = System.getProperty("flake.db");
+        if (value == null || value.isBlank()) {
+            return Path.of(System.getProperty("user.home"), ".cache", "swag-labs", "flake-rates.json");
+        }
+        return Path.of(value.trim());
+    }
+
+    /**
+     * Flake rate, in percent, from which a test is quarantined (-Dflake.quarantinePercent, default
+     * 25); 0 turns quarantine off. Only tests with -Dflake.minRuns (default 5) runs of history qualify.
+     */
+    public static int flakeQuarantinePercent() {
+        return intProperty("flake.quarantinePercent", 25);
+    }
+
+    public static int flakeMinRuns() {
+        return intProperty("flake.minRuns", 5);
+    }
+
+    /**
+     * Per-test duration history the shard planner balances with (-Dtiming.db). Every run adds to
+     * it; share one file between machines to plan for all of them.
+     */
+    public static Path timingDb() {
+        String value = System.getProperty("timing.db");
+        if (value == null || value.isBlank()) {
+            return Path.of(System.getProperty("user.home"), ".cache", "swag-labs", "test-durations.json");
+        }
+        return Path.of(value.trim());
+    }
+
+    /**
+     * Consecutive failures of a named precondition (login, add-to-cart, checkout-start) after which
+     * the tests depending on it are skipped (-Dbreaker.threshold); 0 never skips.
+     */
+    public static int breakerThreshold() {
+        return intProperty("breaker.threshold", 3);
+    }
+
+    /** How long a tripped precondition is skipped before one test probes it again (-Dbreaker.halfOpenSeconds). */
+    public static Duration breakerHalfOpenAfter() {
+        return Duration.ofSeconds(intProperty("breaker.halfOpenSeconds", 60));
+    }
+
+    /** Heap that failure artifacts waiting to be written may take up (-Dartifacts.maxQueuedMb). */
+    public static long artifactsMaxQueuedBytes() {
+        return intProperty("artifacts.maxQueuedMb", 64) * 1024L * 1024L;
+    }
+
+    /** Record a compressed HAR-style network trace per test over CDP (-Dnetwork.record=true). */
+    public static boolean networkRecord() {
+        return Boolean.parseBoolean(System.getProperty("network.record", "false").trim());
+    }
+
+    /** Longest response body kept in a network trace (-Dnetwork.maxBodyKb); 0 keeps none. */
+    public static long networkMaxBodyBytes() {
+        return intProperty("network.maxBodyKb", 64) * 1024L;
+    }
+
+    /**
+     * {@code enforce} (default) fails a test whose page transitions go over perf-budgets.properties;
+     * {@code report} only logs them (-Dperf.budgets).
+     */
+    public static String perfBudgets() {
+        String value = System.getProperty("perf.budgets", PERF_BUDGETS_ENFORCE).trim().toLowerCase(Locale.ROOT);
+        if (!PERF_BUDGETS_ENFORCE.equals(value) && !PERF_BUDGETS_REPORT.equals(value)) {
+            throw new IllegalArgumentException("System property 'perf.budgets' must be 'enforce' or 'report' but was '" + value + "'");
+        }
+        return value;
+    }
+
+    /**
+     * {@code fail} (default) fails a test whose pages threw uncaught JavaScript errors; {@code report}
+     * only logs them and {@code off} does not listen for console events (-Djs.errors).
+     */
+    public static String jsErrors() {
+        String value = System.getProperty("js.errors", JS_ERRORS_FAIL).trim().toLowerCase(Locale.ROOT);
+        if (!JS_ERRORS_FAIL.equals(value) && !JS_ERRORS_REPORT.equals(value) && !JS_ERRORS_OFF.equals(value)) {
+            throw new IllegalArgumentException("System property 'js.errors' must be 'fail', 'report' or 'off' but was '" + value + "'");
+        }
+        return value;
+    }
+
+    /**
+     * Run {@link drivers.Browserless} tests on HtmlUnit rather than Chrome (-Dbrowserless). On by
+     * default only against {@code -Dbase.url=local}, the site those tests were verified on; the
+     * live SauceDemo bundle keeps them on Chrome unless it is switched on explicitly.
+     */
+    public static boolean browserless() {
+        String fallback = String.valueOf(LOCAL.equalsIgnoreCase(System.getProperty("base.url", "").trim()));
+        return Boolean.parseBoolean(System.getProperty("browserless", fallback).trim());
+    }
+
+    /** Virtual users the load generator runs at full load (-Dload.users). */
+    public static int loadUsers() {
+        return intProperty("load.users", 50);
+    }
+
+    /** Time over which the load generator starts its users, evenly spaced (-Dload.rampUpSeconds). */
+    public static Duration loadRampUp() {
+        return Duration.ofSeconds(intProperty("load.rampUpSeconds", 10));
+    }
+
+    /** Length of a load run, ramp-up included (-Dload.durationSeconds). */
+    public static Duration loadDuration() {
+        return Duration.ofSeconds(intProperty("load.durationSeconds", 60));
+    }
+
+    /** Mean pause after every journey step; each pause is 50-150% of it (-Dload.thinkTimeMs). */
+    public static Duration loadThinkTime() {
+        return Duration.ofMillis(intProperty("load.thinkTimeMs", 1000));
+    }
+
+    /** Journeys the virtual users take turns at, comma separated (-Dload.journeys=complete-purchase). */
+    public static List<Journey> loadJourneys() {
+        String value = System.getProperty("load.journeys", "complete-purchase,multiple-items");
+        List<Journey> journeys = new ArrayList<>();
+        for (String name : value.split(",")) {
+            if (!name.isBlank()) {
+                journeys.add(Journey.fromName(name));
+            }
+        }
+        return journeys;
+    }
+
+    static int intProperty(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("System property '" + key + "' must be an integer but was '" + value + "'", e);
+        }
+    }
+}
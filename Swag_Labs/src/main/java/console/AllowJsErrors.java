@@ -0,0 +1,16 @@
+package console;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps uncaught JavaScript errors from failing a test under {@code -Djs.errors=fail}, e.g. one
+ * that logs in as problem_user or error_user on purpose. The errors are still collected and logged.
+ * On a class it covers all of its tests.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface AllowJsErrors {
+}
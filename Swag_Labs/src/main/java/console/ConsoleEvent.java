@@ -0,0 +1,28 @@
+package console;
+
+/**
+ * One browser console call or uncaught JavaScript exception seen during a test.
+ *
+ * @param kind    console API call or uncaught exception
+ * @param level   the console method ({@code log}, {@code error}, {@code warning}, ...), {@code error} for exceptions
+ * @param message the logged arguments, or the exception's description with its stack
+ * @param source  {@code url:line} where it came from, empty when Chrome does not say
+ */
+public record ConsoleEvent(Kind kind, String level, String message, String source) {
+
+    public enum Kind {
+        CONSOLE,
+        EXCEPTION
+    }
+
+    public boolean isUncaughtError() {
+        return kind == Kind.EXCEPTION;
+    }
+
+    @Override
+    public String toString() {
+        String where = source.isEmpty() ? "" : " (" + source + ")";
+        return (kind == Kind.EXCEPTION ? "uncaught " : "console." + level + " ")
+                + message.lines().findFirst().orElse("") + where;
+    }
+}
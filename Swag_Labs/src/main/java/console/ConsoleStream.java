@@ -0,0 +1,176 @@
+package console;
+
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Browser console calls and uncaught JavaScript exceptions, pushed by CDP Runtime events while a
+ * test runs instead of polled from the browser log afterwards.
+ *
+ * <p>Each pooled session subscribes once; its listeners append to the current test's buffer, a
+ * lock-free queue, on the CDP event thread. Starting and ending a test only swaps that buffer, so
+ * a page that logs nothing costs nothing. Tests read the buffer with {@link #events()} and
+ * {@link #uncaughtErrors()}. With {@code -Djs.errors=fail} (the default) the session listener fails
+ * a test that passed but threw uncaught errors, unless it is marked {@link AllowJsErrors};
+ * {@code report} only logs them and {@code off} does not subscribe at all.
+ */
+public final class ConsoleStream {
+
+    /** Result attribute listing the test's uncaught errors, one per line. */
+    public static final String JS_ERRORS_ATTRIBUTE = "jsErrors";
+
+    private static final Logger LOG = LogManager.getLogger(ConsoleStream.class);
+
+    private static final Map<DevTools, Tap> TAPS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ThreadLocal<Queue<ConsoleEvent>> CURRENT = new ThreadLocal<>();
+
+    private ConsoleStream() {
+    }
+
+    public static boolean enabled() {
+        return !Config.JS_ERRORS_OFF.equals(Config.jsErrors());
+    }
+
+    /** Starts collecting {@code driver}'s console for the calling thread's test, unless already collecting. */
+    public static void begin(WebDriver driver) {
+        if (CURRENT.get() != null) {
+            return;
+        }
+        Queue<ConsoleEvent> buffer = new ConcurrentLinkedQueue<>();
+        CURRENT.set(buffer);
+        if (!(driver instanceof HasDevTools hasDevTools)) {
+            LOG.debug("Console events need a CDP session; {} has none", driver.getClass().getSimpleName());
+            return;
+        }
+        try {
+            TAPS.computeIfAbsent(hasDevTools.getDevTools(), Tap::new).target.set(buffer);
+        } catch (WebDriverException e) {
+            LOG.warn("Could not subscribe to console events: {}", e.getMessage());
+        }
+    }
+
+    /** Everything the calling thread's test has logged or thrown so far, oldest first. */
+    public static List<ConsoleEvent> events() {
+        Queue<ConsoleEvent> buffer = CURRENT.get();
+        return buffer == null ? List.of() : List.copyOf(buffer);
+    }
+
+    /** The uncaught exceptions among {@link #events()}. */
+    public static List<ConsoleEvent> uncaughtErrors() {
+        return events().stream().filter(ConsoleEvent::isUncaughtError).toList();
+    }
+
+    /**
+     * Stops collecting for the calling thread's test and applies the failure policy to
+     * {@code result}; called by the session listener when the test ends.
+     */
+    public static void endTest(ITestResult result) {
+        Queue<ConsoleEvent> buffer = CURRENT.get();
+        CURRENT.remove();
+        if (buffer == null) {
+            return;
+        }
+        TAPS.values().forEach(tap -> tap.target.compareAndSet(buffer, null));
+        List<ConsoleEvent> errors = buffer.stream().filter(ConsoleEvent::isUncaughtError).toList();
+        if (errors.isEmpty()) {
+            return;
+        }
+        String test = result.getMethod().getQualifiedName();
+        String listing = errors.stream().map(ConsoleEvent::toString).collect(Collectors.joining("\n"));
+        result.setAttribute(JS_ERRORS_ATTRIBUTE, listing);
+        LOG.warn("{} threw {} uncaught JavaScript error(s):\n{}", test, errors.size(), listing);
+        boolean enforce = Config.JS_ERRORS_FAIL.equals(Config.jsErrors())
+                && !allowed(result.getMethod().getConstructorOrMethod().getMethod());
+        if (enforce && result.getStatus() == ITestResult.SUCCESS) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError("Uncaught JavaScript error(s): " + listing));
+        }
+    }
+
+    private static boolean allowed(Method method) {
+        return method != null && (method.isAnnotationPresent(AllowJsErrors.class)
+                || method.getDeclaringClass().isAnnotationPresent(AllowJsErrors.class));
+    }
+
+    /** The Runtime listeners of one session, feeding whichever buffer is current for it. */
+    private static final class Tap {
+
+        private final AtomicReference<Queue<ConsoleEvent>> target = new AtomicReference<>();
+
+        Tap(DevTools devTools) {
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Runtime.enable", Map.of()));
+            devTools.addListener(event("Runtime.consoleAPICalled"), params -> {
+                Queue<ConsoleEvent> buffer = target.get();
+                if (buffer != null) {
+                    buffer.add(new ConsoleEvent(ConsoleEvent.Kind.CONSOLE, String.valueOf(params.get("type")),
+                            arguments(params.get("args")), source(map(params.get("stackTrace")))));
+                }
+            });
+            devTools.addListener(event("Runtime.exceptionThrown"), params -> {
+                Queue<ConsoleEvent> buffer = target.get();
+                if (buffer != null) {
+                    Map<String, Object> details = map(params.get("exceptionDetails"));
+                    Object description = map(details.get("exception")).get("description");
+                    buffer.add(new ConsoleEvent(ConsoleEvent.Kind.EXCEPTION, "error",
+                            String.valueOf(description != null ? description : details.get("text")), source(details)));
+                }
+            });
+        }
+
+        private static String arguments(Object args) {
+            List<String> parts = new ArrayList<>();
+            if (args instanceof List<?> list) {
+                for (Object arg : list) {
+                    Map<String, Object> remote = map(arg);
+                    Object value = remote.containsKey("value") ? remote.get("value") : remote.get("description");
+                    parts.add(String.valueOf(value));
+                }
+            }
+            return String.join(" ", parts);
+        }
+
+        /** {@code url:line} of an exception's details or the top frame of a console call's stack. */
+        private static String source(Map<String, Object> location) {
+            Object frames = location.get("callFrames");
+            if (frames instanceof List<?> list && !list.isEmpty()) {
+                location = map(list.get(0));
+            }
+            Object url = location.get("url");
+            if (url == null || String.valueOf(url).isEmpty()) {
+                return "";
+            }
+            // CDP lines are zero-based
+            return location.get("lineNumber") instanceof Number line ? url + ":" + (line.intValue() + 1) : String.valueOf(url);
+        }
+
+        private static Event<Map<String, Object>> event(String method) {
+            return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> map(Object value) {
+            return value instanceof Map<?, ?> ? (Map<String, Object>) value : Map.of();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package data;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.json.JsonInput;
+import org.testng.ITestContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Test data read from CSV or JSON files on the class path (src/test/resources), one row at a time.
+ * A @DataProvider returns the iterator as is: TestNG pulls a row just before running it, so a
+ * serial provider never holds more than one row, however long the file. A parallel provider
+ * ({@code @DataProvider(parallel = true)}) is drained by TestNG up front, every row queued for the
+ * {@code data-provider-thread-count} workers, so it returns {@link #parallel(ITestContext, Method)}
+ * instead: that holds the reader back until rows finish, keeping at most
+ * {@value #ROWS_PER_WORKER} rows per worker queued or running while each worker borrows a pooled
+ * session for the row it runs.
+ *
+ * <p>CSV files start with a header line; fields may be double-quoted, with {@code ""} for a quote.
+ * JSON files hold one array of objects, read with a streaming parser; each row takes the named
+ * fields in order, missing ones as empty strings.
+ */
+public final class DataRows implements Iterator<Object[]>, AutoCloseable {
+
+    static final int ROWS_PER_WORKER = 2;
+    // A row whose result never arrives must not stall the provider for good
+    private static final long WINDOW_WAIT_MINUTES = 5;
+    // Rows handed out and not yet finished, per test method of a parallel provider
+    private static final Map<Method, Semaphore> WINDOWS = new ConcurrentHashMap<>();
+
+    private final String resource;
+    private final RowReader reader;
+    private final AutoCloseable source;
+    private Object[] next;
+    private boolean closed;
+    private Method test;
+    private Semaphore window;
+
+    private DataRows(String resource, RowReader reader, AutoCloseable source) {
+        this.resource = resource;
+        this.reader = reader;
+        this.source = source;
+    }
+
+    /** Rows of the CSV file {@code resource}, one String per column, header line skipped. */
+    public static DataRows csv(String resource) {
+        BufferedReader in = open(resource);
+        int[] lineNumber = {1};
+        try {
+            in.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + resource, e);
+        }
+        return new DataRows(resource, () -> {
+            String line;
+            do {
+                line = in.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            return line == null ? null : parseCsvLine(line, resource, lineNumber[0]);
+        }, in);
+    }
+
+    /** Rows of the JSON array {@code resource}: the values of {@code fields} from each object. */
+    public static DataRows json(String resource, String... fields) {
+        return json(resource, row -> true, fields);
+    }
+
+    /** As {@link #json(String, String...)}, keeping only the objects {@code filter} accepts. */
+    public static DataRows json(String resource, Predicate<Map<String, Object>> filter, String... fields) {
+        BufferedReader in = open(resource);
+        JsonInput input = new Json().newInput(in);
+        input.beginArray();
+        return new DataRows(resource, () -> {
+            while (input.hasNext()) {
+                Map<String, Object> row = input.read(Json.MAP_TYPE);
+                if (filter.test(row)) {
+                    Object[] values = new Object[fields.length];
+                    for (int i = 0; i < fields.length; i++) {
+                        Object value = row.get(fields[i]);
+                        values[i] = value == null ? "" : String.valueOf(value);
+                    }
+                    return values;
+                }
+            }
+            return null;
+        }, input);
+    }
+
+    /**
+     * Paces these rows for a parallel provider of {@code test}: TestNG gets the next row only while
+     * fewer than {@value #ROWS_PER_WORKER} per {@code data-provider-thread-count} worker are queued
+     * or running. The session listener reports each row's final result with {@link #rowFinished}.
+     */
+    public DataRows parallel(ITestContext context, Method test) {
+        int workers = Math.max(1, context.getSuite().getXmlSuite().getDataProviderThreadCount());
+        this.test = test;
+        this.window = new Semaphore(ROWS_PER_WORKER * workers);
+        WINDOWS.put(test, window);
+        return this;
+    }
+
+    /** A row of {@code test} is done for good (passed, failed or skipped, reruns included). */
+    public static void rowFinished(Method test) {
+        Semaphore rows = WINDOWS.get(test);
+        if (rows != null) {
+            rows.release();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !closed) {
+            awaitWindow();
+            try {
+                next = reader.read();
+            } catch (IOException | JsonException e) {
+                close();
+                throw new IllegalStateException("Could not read test data from " + resource, e);
+            }
+            if (next == null) {
+                close();
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows in " + resource);
+        }
+        Object[] row = next;
+        next = null;
+        return row;
+    }
+
+    /** Closes the file early; iterating to the end closes it too. */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (window != null) {
+            WINDOWS.remove(test, window);
+        }
+        try {
+            source.close();
+        } catch (Exception e) {
+            // Nothing more will be read from it
+        }
+    }
+
+    private void awaitWindow() {
+        if (window == null) {
+            return;
+        }
+        try {
+            // On timeout the row goes out anyway; a late result only widens the window
+            window.tryAcquire(WINDOW_WAIT_MINUTES, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static BufferedReader open(String resource) {
+        InputStream in = DataRows.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Test data not found on the class path: " + resource);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static Object[] parseCsvLine(String line, String resource, int lineNumber) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalStateException("Unterminated quote in " + resource + " line " + lineNumber);
+        }
+        fields.add(field.toString());
+        return fields.toArray();
+    }
+
+    /** Source of the next row, or {@code null} at the end. */
+    private interface RowReader {
+        Object[] read() throws IOException;
+    }
+}
@@ -0,0 +1,18 @@
+package dom;
+
+import java.math.BigDecimal;
+
+/**
+ * One {@code inventory_item} or {@code cart_item} row as rendered, read by {@link ItemRows}.
+ *
+ * @param price      numeric value of {@code priceText}, or {@code null} when the row shows no price
+ * @param button     label of the row's button ("Add to cart" / "Remove"), or {@code null}
+ * @param quantity   the cart_quantity value on cart and checkout rows, 0 on inventory rows
+ */
+public record ItemRow(String name, String description, String priceText, BigDecimal price,
+                      String button, String buttonId, boolean buttonEnabled, int quantity) {
+
+    public boolean inCart() {
+        return "Remove".equals(button);
+    }
+}
@@ -0,0 +1,81 @@
+package dom;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads every product row on the inventory, cart or checkout overview page in a single
+ * {@code executeScript} call. The findElements-then-getText pattern costs one chromedriver round
+ * trip per element; this costs one per page, however many rows there are.
+ */
+public final class ItemRows {
+
+    private static final String READ_SCRIPT =
+            "function text(row, selector) {"
+            + "  var el = row.querySelector(selector);"
+            + "  return el ? (el.innerText || el.textContent).trim() : null;"
+            + "}"
+            + "var rows = document.querySelectorAll('.inventory_item, .cart_item');"
+            + "var result = [];"
+            + "for (var i = 0; i < rows.length; i++) {"
+            + "  var row = rows[i], button = row.querySelector('button');"
+            + "  result.push({"
+            + "    name: text(row, '.inventory_item_name'),"
+            + "    description: text(row, '.inventory_item_desc'),"
+            + "    price: text(row, '.inventory_item_price'),"
+            + "    button: button ? (button.innerText || button.textContent).trim() : null,"
+            + "    buttonId: button ? button.id : null,"
+            + "    buttonEnabled: button ? !button.disabled : false,"
+            + "    quantity: text(row, '.cart_quantity')"
+            + "  });"
+            + "}"
+            + "return result;";
+
+    private ItemRows() {
+    }
+
+    /** Snapshot of the rows currently in the DOM, in page order. */
+    public static List<ItemRow> read(WebDriver driver) {
+        List<?> raw = (List<?>) ((JavascriptExecutor) driver).executeScript(READ_SCRIPT);
+        List<ItemRow> rows = new ArrayList<>(raw.size());
+        for (Object entry : raw) {
+            Map<?, ?> row = (Map<?, ?>) entry;
+            String priceText = (String) row.get("price");
+            String quantity = (String) row.get("quantity");
+            rows.add(new ItemRow((String) row.get("name"), (String) row.get("description"),
+                    priceText, parsePrice(priceText), (String) row.get("button"),
+                    (String) row.get("buttonId"), Boolean.TRUE.equals(row.get("buttonEnabled")),
+                    quantity == null || quantity.isEmpty() ? 0 : Integer.parseInt(quantity)));
+        }
+        return rows;
+    }
+
+    /** For {@code wait.until(...)}: the rows once at least one is rendered. */
+    public static ExpectedCondition<List<ItemRow>> present() {
+        return driver -> {
+            List<ItemRow> rows = read(driver);
+            return rows.isEmpty() ? null : rows;
+        };
+    }
+
+    public static List<String> names(List<ItemRow> rows) {
+        return rows.stream().map(ItemRow::name).toList();
+    }
+
+    public static List<BigDecimal> prices(List<ItemRow> rows) {
+        return rows.stream().map(ItemRow::price).toList();
+    }
+
+    private static BigDecimal parsePrice(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        return new BigDecimal(text.replace("$", "").replace(",", "").trim());
+    }
+}
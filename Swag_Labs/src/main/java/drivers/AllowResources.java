@@ -0,0 +1,17 @@
+package drivers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets one test download resource classes the lean profile normally blocks, e.g. a test that
+ * asserts a product image is displayed. Has no effect with the full profile.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AllowResources {
+
+    ResourceClass[] value();
+}
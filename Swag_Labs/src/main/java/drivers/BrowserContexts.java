@@ -0,0 +1,224 @@
+package drivers;
+
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs several pooled sessions inside one Chrome process (-Dbrowser.contexts=N). Each session gets
+ * its own CDP browser context, which has the cookie jar, storage and cache separation of an
+ * incognito profile, and a chromedriver session of its own attached to the shared Chrome, so
+ * tests in different contexts still run in parallel. A 50-session run then needs 50/N browsers
+ * instead of 50.
+ *
+ * <p>The scheduler places every new session in the least loaded host Chrome with fewer than N
+ * contexts and launches another host when all are full; a host quits once its last context is
+ * gone. When isolation cannot be guaranteed (no DevTools address to attach to, a context that
+ * cannot be created, or a window chromedriver cannot see) it logs why and falls back to one
+ * Chrome process per session for the rest of the run.
+ */
+public final class BrowserContexts {
+
+    private static final Logger LOG = LogManager.getLogger(BrowserContexts.class);
+    private static final List<Host> HOSTS = new ArrayList<>();
+    private static volatile boolean multiplexing = true;
+
+    private BrowserContexts() {
+    }
+
+    /** A session in its own browser context, or in its own Chrome once multiplexing is off. */
+    public static WebDriver open() {
+        if (multiplexing) {
+            Host host = claim();
+            if (host != null) {
+                try {
+                    return attach(host);
+                } catch (WebDriverException e) {
+                    fallBack("Could not open a browser context: " + e.getMessage());
+                }
+            }
+        }
+        return DriverFactory.createChrome();
+    }
+
+    /** Takes a context slot on the least loaded host, launching a host when all are full. */
+    private static synchronized Host claim() {
+        if (!multiplexing) {
+            return null;
+        }
+        Host host = leastLoaded();
+        if (host == null) {
+            WebDriver browser = DriverFactory.createChrome();
+            String address = debuggerAddress(browser);
+            if (address == null || !(browser instanceof HasDevTools tools) || tools.maybeGetDevTools().isEmpty()) {
+                fallBack("Chrome exposes no DevTools connection to share");
+                quitQuietly(browser);
+                return null;
+            }
+            host = new Host(browser, tools.getDevTools(), address);
+            HOSTS.add(host);
+            LOG.info("Launched browser context host {} ({} hosts, up to {} contexts each)",
+                    address, HOSTS.size(), Config.browserContexts());
+        }
+        host.sessions++;
+        return host;
+    }
+
+    private static WebDriver attach(Host host) {
+        String contextId = null;
+        ContextDriver driver = null;
+        try {
+            contextId = host.createContext();
+            String target = host.createTarget(contextId);
+            driver = new ContextDriver(DriverFactory.attachOptions(host.debuggerAddress), host, contextId, target);
+            driver.enter();
+            return DriverFactory.prepare(driver);
+        } catch (WebDriverException e) {
+            if (driver != null) {
+                driver.quit();
+            } else {
+                if (contextId != null) {
+                    host.dispose(contextId);
+                }
+                release(host);
+            }
+            throw e;
+        }
+    }
+
+    /** Called when a session of {@code host} is gone; the host quits with its last session. */
+    static synchronized void release(Host host) {
+        host.sessions--;
+        if (host.sessions <= 0 && HOSTS.remove(host)) {
+            quitQuietly(host.browser);
+        }
+    }
+
+    private static Host leastLoaded() {
+        HOSTS.removeIf(host -> {
+            if (host.isAlive()) {
+                return false;
+            }
+            LOG.warn("Browser context host {} is gone; its sessions will be replaced", host.debuggerAddress);
+            quitQuietly(host.browser);
+            return true;
+        });
+        return HOSTS.stream()
+                .filter(host -> host.sessions < Config.browserContexts())
+                .min(Comparator.comparingInt(host -> host.sessions))
+                .orElse(null);
+    }
+
+    private static synchronized void fallBack(String reason) {
+        if (multiplexing) {
+            multiplexing = false;
+            LOG.warn("{}; running one Chrome per session from now on", reason);
+        }
+    }
+
+    private static void quitQuietly(WebDriver browser) {
+        try {
+            browser.quit();
+        } catch (WebDriverException e) {
+            LOG.debug("Ignoring failure while quitting a browser context host: {}", e.getMessage());
+        }
+    }
+
+    private static String debuggerAddress(WebDriver browser) {
+        if (!(browser instanceof HasCapabilities capabilities)) {
+            return null;
+        }
+        Object chrome = capabilities.getCapabilities().getCapability("goog:chromeOptions");
+        if (chrome instanceof Map<?, ?> options && options.get("debuggerAddress") instanceof String address) {
+            return address;
+        }
+        return null;
+    }
+
+    /**
+     * One host Chrome. Its browser-level DevTools connection creates and disposes of contexts and
+     * lists their windows; the host's own window is never handed to a test.
+     */
+    static final class Host {
+
+        private final WebDriver browser;
+        private final DevTools devTools;
+        private final String debuggerAddress;
+        private int sessions;
+
+        Host(WebDriver browser, DevTools devTools, String debuggerAddress) {
+            this.browser = browser;
+            this.devTools = devTools;
+            this.debuggerAddress = debuggerAddress;
+        }
+
+        String createContext() {
+            return (String) send("Target.createBrowserContext", Map.of("disposeOnDetach", false))
+                    .get("browserContextId");
+        }
+
+        /** Opens the context's first window and returns its target id, which chromedriver uses as the window handle. */
+        String createTarget(String contextId) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("url", "about:blank");
+            params.put("browserContextId", contextId);
+            params.put("newWindow", true);
+            if (LeanProfile.enabled()) {
+                params.put("width", DriverFactory.LEAN_WIDTH);
+                params.put("height", DriverFactory.LEAN_HEIGHT);
+            }
+            return (String) send("Target.createTarget", params).get("targetId");
+        }
+
+        /** Target ids of every page and popup open in {@code contextId}. */
+        Set<String> targetsIn(String contextId) {
+            Set<String> targets = new HashSet<>();
+            Object infos = send("Target.getTargets", Map.of()).get("targetInfos");
+            if (infos instanceof List<?> list) {
+                for (Object info : list) {
+                    if (info instanceof Map<?, ?> target && contextId.equals(target.get("browserContextId"))) {
+                        targets.add(String.valueOf(target.get("targetId")));
+                    }
+                }
+            }
+            return targets;
+        }
+
+        void dispose(String contextId) {
+            try {
+                send("Target.disposeBrowserContext", Map.of("browserContextId", contextId));
+            } catch (WebDriverException e) {
+                LOG.debug("Could not dispose of browser context {}: {}", contextId, e.getMessage());
+            }
+        }
+
+        boolean isAlive() {
+            try {
+                browser.getWindowHandle();
+                return true;
+            } catch (WebDriverException e) {
+                return false;
+            }
+        }
+
+        // Sent without a target session, so the commands go to the browser rather than a page
+        private synchronized Map<String, Object> send(String method, Map<String, Object> params) {
+            return devTools.send(new Command<Map<String, Object>>(method, params, Json.MAP_TYPE));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package drivers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a test on an in-JVM HtmlUnit session instead of Chrome. Meant for checks that only need the
+ * DOM, JavaScript and cookies, such as form validation messages; anything that depends on layout,
+ * rendering, screenshots or CDP stays on a real browser.
+ *
+ * <p>On a method it applies to that test; on a class it also covers the class's @BeforeMethod.
+ * A session already bound to the thread (by a @BeforeMethod of an unannotated class, say) is kept.
+ * It takes effect by default against {@code -Dbase.url=local} only; {@code -Dbrowserless} switches
+ * it on or off for any site.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Browserless {
+}
@@ -0,0 +1,69 @@
+package drivers;
+
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A chromedriver session attached to a {@link BrowserContexts} host Chrome and confined to one
+ * browser context of it. chromedriver sees every tab of the process, so the window handles are
+ * narrowed to this context's targets: the pool's reset then closes only this test's extra windows,
+ * never a neighbour's. Quitting disposes of the context and its windows and leaves the host running.
+ */
+final class ContextDriver extends ChromeDriver {
+
+    private final BrowserContexts.Host host;
+    private final String contextId;
+    private final String mainTarget;
+    private volatile boolean quit;
+
+    ContextDriver(ChromeOptions attachOptions, BrowserContexts.Host host, String contextId, String mainTarget) {
+        super(attachOptions);
+        this.host = host;
+        this.contextId = contextId;
+        this.mainTarget = mainTarget;
+    }
+
+    /** Moves the session onto the context's first window; fails if chromedriver cannot see it. */
+    void enter() {
+        if (!getWindowHandles().contains(mainTarget)) {
+            throw new NoSuchWindowException("Browser context " + contextId + " has no window this session can drive");
+        }
+        switchTo().window(mainTarget);
+    }
+
+    /** The windows of this browser context only, its first window leading. */
+    @Override
+    public Set<String> getWindowHandles() {
+        Set<String> mine = host.targetsIn(contextId);
+        List<String> visible = super.getWindowHandles().stream().filter(mine::contains).toList();
+        Set<String> handles = new LinkedHashSet<>();
+        if (visible.contains(mainTarget)) {
+            handles.add(mainTarget);
+        }
+        handles.addAll(visible);
+        if (handles.isEmpty()) {
+            throw new NoSuchWindowException("Browser context " + contextId + " has no windows left");
+        }
+        return handles;
+    }
+
+    @Override
+    public void quit() {
+        if (quit) {
+            return;
+        }
+        quit = true;
+        try {
+            host.dispose(contextId);
+            // Attached sessions leave the browser itself running
+            super.quit();
+        } finally {
+            BrowserContexts.release(host);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package drivers;
+
+import config.Config;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.managers.ChromeDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Properties;
+
+/**
+ * Resolves the chromedriver binary once per JVM and keeps a copy in {@link Config#driverCacheDir()}.
+ *
+ * <p>While the cached copy is younger than {@link Config#driverCacheTtl()}, its SHA-256 still
+ * matches the manifest and the installed Chrome reports the version it was resolved for, no network
+ * call is made at all. Once the TTL expires or Chrome has updated itself, WebDriverManager resolves
+ * the version again; if that fails (offline agent) a stale but intact copy is still used.
+ * An explicit {@code -Dwebdriver.chrome.driver} always wins.
+ */
+public final class DriverBinaries {
+
+    private static final Logger LOG = LogManager.getLogger(DriverBinaries.class);
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final String MANIFEST = "chromedriver.properties";
+
+    private static volatile Resolution resolution;
+
+    private DriverBinaries() {
+    }
+
+    /** Where the binary came from and how long it took to find it. */
+    public record Resolution(Path path, String version, String source, Duration elapsed) {
+    }
+
+    /** Points {@code webdriver.chrome.driver} at a usable chromedriver; cheap after the first call. */
+    public static Resolution chromedriver() {
+        Resolution result = resolution;
+        if (result == null) {
+            synchronized (DriverBinaries.class) {
+                result = resolution;
+                if (result == null) {
+                    long start = System.nanoTime();
+                    result = resolve(start);
+                    if (result.path() != null) {
+                        System.setProperty(DRIVER_PROPERTY, result.path().toString());
+                    }
+                    LOG.info("chromedriver {} from {} in {} ms", result.version(), result.source(),
+                            result.elapsed().toMillis());
+                    resolution = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Resolution resolve(long start) {
+        String explicit = System.getProperty(DRIVER_PROPERTY);
+        if (explicit != null && !explicit.isBlank()) {
+            return new Resolution(Path.of(explicit), "unknown", "-D" + DRIVER_PROPERTY, since(start));
+        }
+        Path dir = Config.driverCacheDir();
+        Properties cached = readManifest(dir);
+        Path cachedPath = verified(dir, cached);
+        String browserVersion = browserVersion();
+        if (cachedPath != null && isFresh(cached, browserVersion)) {
+            return new Resolution(cachedPath, cached.getProperty("version"), "cache", since(start));
+        }
+        try {
+            WebDriverManager manager = WebDriverManager.chromedriver();
+            manager.setup();
+            Path downloaded = Path.of(manager.getDownloadedDriverPath());
+            String version = manager.getDownloadedDriverVersion();
+            Path stored = store(dir, downloaded, version, browserVersion);
+            return new Resolution(stored, version, "WebDriverManager", since(start));
+        } catch (RuntimeException | IOException e) {
+            if (cachedPath != null) {
+                LOG.warn("Could not refresh chromedriver ({}); using the stale cached copy", e.getMessage());
+                return new Resolution(cachedPath, cached.getProperty("version"), "stale cache", since(start));
+            }
+            // Leave the property unset so Selenium Manager gets a chance to find a driver itself
+            LOG.warn("Could not resolve chromedriver, deferring to Selenium Manager: {}", e.getMessage());
+            return new Resolution(null, "unknown", "Selenium Manager", since(start));
+        }
+    }
+
+    private static Path store(Path dir, Path downloaded, String version, String browserVersion) throws IOException {
+        Files.createDirectories(dir);
+        String name = downloaded.getFileName().toString();
+        Path target = dir.resolve(name.endsWith(".exe") ? "chromedriver-" + version + ".exe" : "chromedriver-" + version);
+        Path partial = Files.createTempFile(dir, "chromedriver", ".part");
+        Files.copy(downloaded, partial, StandardCopyOption.REPLACE_EXISTING);
+        partial.toFile().setExecutable(true);
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Properties manifest = new Properties();
+        manifest.setProperty("path", target.getFileName().toString());
+        manifest.setProperty("version", version);
+        if (browserVersion != null) {
+            manifest.setProperty("browserVersion", browserVersion);
+        }
+        manifest.setProperty("sha256", sha256(target));
+        manifest.setProperty("resolvedAt", Instant.now().toString());
+        Path manifestPartial = Files.createTempFile(dir, MANIFEST, ".part");
+        try (OutputStream out = Files.newOutputStream(manifestPartial)) {
+            manifest.store(out, "Resolved chromedriver, see drivers.DriverBinaries");
+        }
+        Files.move(manifestPartial, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    private static Properties readManifest(Path dir) {
+        Properties manifest = new Properties();
+        Path file = dir.resolve(MANIFEST);
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                manifest.load(in);
+            } catch (IOException e) {
+                LOG.warn("Ignoring unreadable driver manifest {}: {}", file, e.getMessage());
+                manifest.clear();
+            }
+        }
+        return manifest;
+    }
+
+    /** The cached binary if it exists and still hashes to what the manifest recorded, else null. */
+    private static Path verified(Path dir, Properties manifest) {
+        String name = manifest.getProperty("path");
+        String expected = manifest.getProperty("sha256");
+        if (name == null || expected == null) {
+            return null;
+        }
+        Path binary = dir.resolve(name);
+        try {
+            if (Files.isRegularFile(binary) && expected.equals(sha256(binary))) {
+                return binary;
+            }
+            LOG.warn("Cached chromedriver {} is missing or corrupt, resolving again", binary);
+        } catch (IOException e) {
+            LOG.warn("Could not verify cached chromedriver {}: {}", binary, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Whether the cached driver is within its TTL and was resolved for {@code browserVersion}. An
+     * unknown installed version leaves the decision to the TTL alone.
+     */
+    private static boolean isFresh(Properties manifest, String browserVersion) {
+        if (browserVersion != null && !browserVersion.equals(manifest.getProperty("browserVersion"))) {
+            LOG.info("Chrome is now {} (cached chromedriver was resolved for {}), resolving again",
+                    browserVersion, manifest.getProperty("browserVersion", "an unknown version"));
+            return false;
+        }
+        try {
+            Instant resolvedAt = Instant.parse(manifest.getProperty("resolvedAt"));
+            return resolvedAt.plus(Config.driverCacheTtl()).isAfter(Instant.now());
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /** The installed Chrome's (major) version, or null when it cannot be detected. Local only, no network. */
+    private static String browserVersion() {
+        try {
+            return new InstalledChrome().version();
+        } catch (RuntimeException e) {
+            LOG.debug("Could not detect the installed Chrome version: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(file),
+                MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Duration since(long start) {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /** WebDriverManager's browser detection (the shell, or the registry on Windows) on its own. */
+    private static final class InstalledChrome extends ChromeDriverManager {
+
+        String version() {
+            return getBrowserVersionFromTheShell().orElse(null);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package drivers;
+
+import config.Config;
+import org.htmlunit.BrowserVersion;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Builds the Chrome sessions used by the suite. This is the single copy of the options
+ * every test class used to assemble on its own in setUp(). Sessions inside a shared Chrome
+ * process come from {@link BrowserContexts}.
+ */
+public final class DriverFactory {
+
+    /** Upper bound for async scripts such as the DOM settle checks in {@code waits.DomState}. */
+    public static final Duration SCRIPT_TIMEOUT = Duration.ofSeconds(30);
+    static final int LEAN_WIDTH = 1920;
+    static final int LEAN_HEIGHT = 1080;
+
+    private DriverFactory() {
+    }
+
+    public static WebDriver createChrome() {
+        DriverBinaries.chromedriver();
+        return prepare(new ChromeDriver(chromeOptions()));
+    }
+
+    /** Applies the profile's window, resource blocking and script timeout to a freshly opened session. */
+    static WebDriver prepare(WebDriver driver) {
+        if (LeanProfile.enabled()) {
+            LeanProfile.block(driver, Config.blockedResources());
+        } else {
+            driver.manage().window().maximize();
+        }
+        driver.manage().timeouts().scriptTimeout(SCRIPT_TIMEOUT);
+        return driver;
+    }
+
+    /**
+     * In-JVM session for {@link Browserless} tests: HtmlUnit emulating Chrome, with JavaScript on.
+     * It starts in milliseconds and needs no driver binary, but renders nothing.
+     */
+    public static WebDriver createHtmlUnit() {
+        WebDriver driver = new HtmlUnitDriver(BrowserVersion.CHROME, true);
+        driver.manage().timeouts().scriptTimeout(SCRIPT_TIMEOUT);
+        return driver;
+    }
+
+    public static ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+
+        // Disable password manager prompts
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("credentials_enable_service", false);
+        prefs.put("profile.password_manager_enabled", false);
+        options.setExperimentalOption("prefs", prefs);
+
+        // Hide Selenium automation flags
+        options.setExperimentalOption("excludeSwitches",
+                Arrays.asList("enable-automation", "enable-logging"));
+        options.setExperimentalOption("useAutomationExtension", false);
+        options.addArguments("--disable-notifications", "--incognito");
+
+        // Keep the browser console readable, for the failure artifacts
+        options.setCapability("goog:loggingPrefs", consoleLogging());
+
+        // Lean profile: no window to paint and a fixed viewport, so layout does not depend on the agent's screen
+        if (LeanProfile.enabled()) {
+            options.addArguments("--headless=new", "--window-size=" + LEAN_WIDTH + "," + LEAN_HEIGHT);
+        }
+        return options;
+    }
+
+    /**
+     * Options for a chromedriver session that attaches to the Chrome already listening on
+     * {@code debuggerAddress} instead of launching one; that Chrome's own options still apply.
+     */
+    static ChromeOptions attachOptions(String debuggerAddress) {
+        ChromeOptions options = new ChromeOptions();
+        options.setExperimentalOption("debuggerAddress", debuggerAddress);
+        options.setCapability("goog:loggingPrefs", consoleLogging());
+        return options;
+    }
+
+    private static LoggingPreferences consoleLogging() {
+        LoggingPreferences logging = new LoggingPreferences();
+        logging.enable(LogType.BROWSER, Level.ALL);
+        return logging;
+    }
+}
@@ -0,0 +1,133 @@
+package drivers;
+
+import config.Config;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Interactive;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import waits.EventDrivenWait;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Binds one pooled browser session to each test thread.
+ *
+ * <p>{@link #driver()} returns a single shared {@link WebDriver} that forwards every call to the
+ * session bound to the calling thread, borrowing one from {@link SessionPool} on first use. Test
+ * classes can therefore keep {@code driver} and {@code wait} in final instance fields and still
+ * run their methods in parallel. {@link WebDriverWait} keeps no per-call state (and
+ * {@link EventDrivenWait} keeps its own per thread), so a wait built on that driver is just as
+ * thread-safe.
+ *
+ * <p>Tests marked {@link Browserless} get an HtmlUnit session from {@link SessionPool#browserless()}
+ * instead; {@link #selectFor(Method)} picks the pool before the thread's session is bound.
+ * Per-session bookkeeping registers with {@link #onBind(Consumer)} so it starts only once a test
+ * really has a browser.
+ */
+public final class DriverRegistry {
+
+    private static final ThreadLocal<WebDriver> SESSION = new ThreadLocal<>();
+    private static final ThreadLocal<SessionPool> POOL = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> BROWSERLESS = new ThreadLocal<>();
+    private static final List<Consumer<WebDriver>> BIND_HOOKS = new CopyOnWriteArrayList<>();
+    private static final WebDriver ROUTING_DRIVER = (WebDriver) Proxy.newProxyInstance(
+            DriverRegistry.class.getClassLoader(),
+            new Class<?>[] {WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class,
+                    HasCapabilities.class, Interactive.class, WrapsDriver.class},
+            DriverRegistry::route);
+
+    private DriverRegistry() {
+    }
+
+    /** The thread-routing driver shared by every test instance. */
+    public static WebDriver driver() {
+        return ROUTING_DRIVER;
+    }
+
+    public static WebDriverWait driverWait(Duration timeout) {
+        return new EventDrivenWait(ROUTING_DRIVER, timeout);
+    }
+
+    /**
+     * Chooses where the calling thread's next session comes from: the browserless pool when
+     * {@code method} or its class is {@link Browserless} (and -Dbrowserless is not off), Chrome
+     * otherwise. Called by the session listener before each test and @BeforeMethod; a session
+     * that is already bound is kept.
+     */
+    public static void selectFor(Method method) {
+        if (Config.browserless() && (method.isAnnotationPresent(Browserless.class)
+                || method.getDeclaringClass().isAnnotationPresent(Browserless.class))) {
+            BROWSERLESS.set(Boolean.TRUE);
+        } else {
+            BROWSERLESS.remove();
+        }
+    }
+
+    /**
+     * Runs {@code hook} on the calling thread each time a session is bound to it, before the
+     * session is first used.
+     */
+    public static void onBind(Consumer<WebDriver> hook) {
+        BIND_HOOKS.add(hook);
+    }
+
+    /** The session bound to the calling thread, borrowing one from the pool if none is bound yet. */
+    public static WebDriver current() {
+        WebDriver session = SESSION.get();
+        if (session == null) {
+            SessionPool pool = BROWSERLESS.get() != null ? SessionPool.browserless() : SessionPool.shared();
+            session = pool.acquire();
+            SESSION.set(session);
+            POOL.set(pool);
+            for (Consumer<WebDriver> hook : BIND_HOOKS) {
+                hook.accept(session);
+            }
+        }
+        return session;
+    }
+
+    public static boolean isBound() {
+        return SESSION.get() != null;
+    }
+
+    /** Returns the calling thread's session to the pool. Safe to call when nothing is bound. */
+    public static void release() {
+        WebDriver session = SESSION.get();
+        SessionPool pool = POOL.get();
+        SESSION.remove();
+        POOL.remove();
+        BROWSERLESS.remove();
+        if (session != null) {
+            pool.release(session);
+        }
+    }
+
+    private static Object route(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "DriverRegistry routing driver (" + SESSION.get() + ")";
+            case "getWrappedDriver":
+                return current();
+            default:
+                break;
+        }
+        try {
+            return method.invoke(current(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package drivers;
+
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The "lean" browser profile (-Dbrowser.profile=lean): headless, a fixed viewport and CDP-level
+ * blocking of the {@link Config#blockedResources()} classes for every pooled session.
+ *
+ * <p>Blocking is applied once when a session is launched. A test annotated with
+ * {@link AllowResources} gets the listed classes unblocked for its own duration; the default
+ * block list is restored before the session goes back to the pool.
+ */
+public final class LeanProfile {
+
+    private static final Logger LOG = LogManager.getLogger(LeanProfile.class);
+    private static final ThreadLocal<Boolean> RELAXED = new ThreadLocal<>();
+
+    private LeanProfile() {
+    }
+
+    public static boolean enabled() {
+        return Config.BROWSER_PROFILE_LEAN.equals(Config.browserProfile());
+    }
+
+    /** Blocks every URL matching {@code classes}; an empty set lifts all blocking. */
+    public static void block(WebDriver driver, Set<ResourceClass> classes) {
+        if (!(driver instanceof HasCdp cdp)) {
+            LOG.debug("{} has no CDP access, resources are not blocked", driver);
+            return;
+        }
+        List<String> urls = new ArrayList<>();
+        classes.forEach(resourceClass -> urls.addAll(resourceClass.patterns()));
+        try {
+            cdp.executeCdpCommand("Network.enable", Map.of());
+            cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", urls));
+        } catch (WebDriverException e) {
+            LOG.warn("Could not set blocked URLs: {}", e.getMessage());
+        }
+    }
+
+    /** Called by the session listener before a test method runs. */
+    public static void beforeTest(Method testMethod) {
+        AllowResources allow = testMethod.getAnnotation(AllowResources.class);
+        if (!enabled() || allow == null) {
+            return;
+        }
+        Set<ResourceClass> blocked = EnumSet.noneOf(ResourceClass.class);
+        blocked.addAll(Config.blockedResources());
+        Arrays.asList(allow.value()).forEach(blocked::remove);
+        block(DriverRegistry.current(), blocked);
+        RELAXED.set(Boolean.TRUE);
+    }
+
+    /** Called by the session listener after a test method, before its session is released. */
+    public static void afterTest() {
+        if (RELAXED.get() == null) {
+            return;
+        }
+        RELAXED.remove();
+        if (DriverRegistry.isBound()) {
+            block(DriverRegistry.current(), Config.blockedResources());
+        }
+    }
+}
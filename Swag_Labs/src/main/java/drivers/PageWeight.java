@@ -0,0 +1,135 @@
+package drivers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bytes transferred and load time of the page each test ends on, read from the Resource Timing
+ * API. Results are written to {@code page-weight-<profile>.csv}; when the other profile's file
+ * from an earlier run is present, the per-test difference (bytes saved, load-time delta) is
+ * logged as well, so running the suite once with each profile shows what lean mode buys.
+ */
+public final class PageWeight {
+
+    private static final Logger LOG = LogManager.getLogger(PageWeight.class);
+    private static final Map<String, Sample> SAMPLES = new ConcurrentHashMap<>();
+
+    private static final String SAMPLE_SCRIPT =
+            "try {"
+            + "  var nav = performance.getEntriesByType('navigation')[0];"
+            + "  var bytes = nav ? nav.transferSize : 0;"
+            + "  performance.getEntriesByType('resource').forEach(function (r) { bytes += r.transferSize || 0; });"
+            + "  return {bytes: bytes, loadMs: nav && nav.loadEventEnd > 0 ? nav.loadEventEnd - nav.startTime : -1};"
+            + "} catch (e) { return null; }";
+
+    private PageWeight() {
+    }
+
+    /** What one test's final page cost: bytes over the wire and navigation-to-load time. */
+    public record Sample(long bytes, long loadMillis) {
+    }
+
+    /**
+     * Samples the current page for one invocation. Data-provider rows are keyed separately
+     * ({@code test[row values]}), so rows of the same method don't overwrite each other.
+     */
+    public static void sample(String test, Object[] parameters, WebDriver driver) {
+        String key = key(test, parameters);
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(SAMPLE_SCRIPT);
+            if (result instanceof Map<?, ?> map) {
+                SAMPLES.put(key, new Sample(((Number) map.get("bytes")).longValue(),
+                        ((Number) map.get("loadMs")).longValue()));
+            }
+        } catch (WebDriverException e) {
+            LOG.debug("No page weight for {}: {}", key, e.getMessage());
+        }
+    }
+
+    // The key goes into a comma-separated file, so commas inside row values are swapped out
+    private static String key(String test, Object[] parameters) {
+        if (parameters == null || parameters.length == 0) {
+            return test;
+        }
+        return test + Arrays.stream(parameters)
+                .map(value -> value instanceof Object[] array ? Arrays.deepToString(array) : String.valueOf(value))
+                .map(value -> value.replace(',', ';'))
+                .collect(Collectors.joining("|", "[", "]"));
+    }
+
+    /** Writes this run's samples and logs the per-test delta against the other profile, if known. */
+    public static void report(Path dir, String profile, String otherProfile) {
+        if (SAMPLES.isEmpty()) {
+            return;
+        }
+        Map<String, Sample> current = new TreeMap<>(SAMPLES);
+        try {
+            Files.createDirectories(dir);
+            write(dir.resolve("page-weight-" + profile + ".csv"), current);
+            Path other = dir.resolve("page-weight-" + otherProfile + ".csv");
+            if (Files.isRegularFile(other)) {
+                logDelta(profile, otherProfile, current, read(other));
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not write page weight report: {}", e.getMessage());
+        }
+    }
+
+    private static void logDelta(String profile, String otherProfile,
+                                 Map<String, Sample> current, Map<String, Sample> baseline) {
+        long bytesSaved = 0;
+        long loadDelta = 0;
+        for (Map.Entry<String, Sample> entry : current.entrySet()) {
+            Sample before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            Sample now = entry.getValue();
+            long saved = before.bytes() - now.bytes();
+            long delta = now.loadMillis() - before.loadMillis();
+            bytesSaved += saved;
+            loadDelta += delta;
+            LOG.info("{}: {} bytes saved, load {} ms vs {}", entry.getKey(), saved,
+                    (delta > 0 ? "+" : "") + delta, otherProfile);
+        }
+        LOG.info("Profile '{}' vs '{}': {} KB saved, load time {} ms in total", profile, otherProfile,
+                bytesSaved / 1024, (loadDelta > 0 ? "+" : "") + loadDelta);
+    }
+
+    private static void write(Path file, Map<String, Sample> samples) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("test,bytes,loadMillis");
+            out.newLine();
+            for (Map.Entry<String, Sample> entry : samples.entrySet()) {
+                out.write(entry.getKey() + "," + entry.getValue().bytes() + "," + entry.getValue().loadMillis());
+                out.newLine();
+            }
+        }
+    }
+
+    private static Map<String, Sample> read(Path file) throws IOException {
+        Map<String, Sample> samples = new TreeMap<>();
+        List<String> lines = Files.readAllLines(file);
+        for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            String[] parts = line.split(",");
+            if (parts.length == 3) {
+                samples.put(parts[0], new Sample(Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+            }
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,109 @@
+package drivers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-run counters for {@link SessionPool}. A reuse is any acquisition served by a session that
+ * was already running. Time saved is estimated as the average cold launch cost multiplied by
+ * the number of reuses, minus what resetting those sessions cost.
+ *
+ * <p>Background time is launch and reset work done off the test threads (pre-launches and
+ * look-ahead resets); waited is how long acquisitions blocked for a session. Their difference is
+ * the work that overlapped running tests.
+ */
+public final class PoolStats {
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+    private final AtomicLong coldLaunches = new AtomicLong();
+    private final AtomicLong coldLaunchNanos = new AtomicLong();
+    private final AtomicLong resetNanos = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong backgroundNanos = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    void recordColdLaunch(long nanos) {
+        coldLaunches.incrementAndGet();
+        coldLaunchNanos.addAndGet(nanos);
+    }
+
+    void recordAcquire(boolean reused) {
+        acquisitions.incrementAndGet();
+        if (reused) {
+            reuses.incrementAndGet();
+        }
+    }
+
+    void recordReset(long nanos) {
+        resetNanos.addAndGet(nanos);
+    }
+
+    void recordDiscard() {
+        discarded.incrementAndGet();
+    }
+
+    void recordBackground(long nanos) {
+        backgroundNanos.addAndGet(nanos);
+    }
+
+    void recordWait(long nanos) {
+        waitNanos.addAndGet(nanos);
+    }
+
+    public long acquisitions() {
+        return acquisitions.get();
+    }
+
+    public long reuses() {
+        return reuses.get();
+    }
+
+    public long coldLaunches() {
+        return coldLaunches.get();
+    }
+
+    public long discarded() {
+        return discarded.get();
+    }
+
+    public double reuseRate() {
+        long total = acquisitions.get();
+        return total == 0 ? 0.0 : (double) reuses.get() / total;
+    }
+
+    public long averageColdLaunchMillis() {
+        long launches = coldLaunches.get();
+        return launches == 0 ? 0 : coldLaunchNanos.get() / launches / 1_000_000;
+    }
+
+    public long backgroundMillis() {
+        return backgroundNanos.get() / 1_000_000;
+    }
+
+    public long waitedMillis() {
+        return waitNanos.get() / 1_000_000;
+    }
+
+    /** Background work that finished while tests ran rather than while one waited for it. */
+    public long overlapMillis() {
+        return Math.max(0, backgroundMillis() - waitedMillis());
+    }
+
+    public long timeSavedMillis() {
+        long launches = coldLaunches.get();
+        if (launches == 0) {
+            return 0;
+        }
+        long avgColdNanos = coldLaunchNanos.get() / launches;
+        return (reuses.get() * avgColdNanos - resetNanos.get()) / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "acquisitions=%d, reuses=%d (%.1f%%), coldLaunches=%d (avg %d ms), discarded=%d, timeSaved=%d ms,"
+                        + " background=%d ms, waited=%d ms, overlap=%d ms",
+                acquisitions(), reuses(), reuseRate() * 100, coldLaunches(), averageColdLaunchMillis(),
+                discarded(), timeSavedMillis(), backgroundMillis(), waitedMillis(), overlapMillis());
+    }
+}
@@ -0,0 +1,39 @@
+package drivers;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Kinds of sub-resource the lean browser profile can refuse to download. Patterns use the
+ * wildcard syntax of CDP {@code Network.setBlockedURLs}. Stylesheets and first-party scripts are
+ * never blocked: visibility assertions depend on them.
+ */
+public enum ResourceClass {
+
+    IMAGES("*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.svg", "*.ico"),
+    FONTS("*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot", "*fonts.googleapis.com*", "*fonts.gstatic.com*"),
+    MEDIA("*.mp4", "*.webm", "*.mp3", "*.ogg"),
+    THIRD_PARTY("*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+            "*backtrace.io*", "*optimizely.com*", "*hotjar.com*", "*segment.io*");
+
+    private final List<String> patterns;
+
+    ResourceClass(String... patterns) {
+        this.patterns = List.of(patterns);
+    }
+
+    public List<String> patterns() {
+        return patterns;
+    }
+
+    /** Parses the names used in -Dlean.block, e.g. {@code images} or {@code third-party}. */
+    public static ResourceClass fromName(String name) {
+        String normalized = name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        try {
+            return valueOf(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown resource class '" + name + "', expected one of "
+                    + List.of(values()), e);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package drivers;
+
+import config.Config;
+import metrics.CommandTimer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps browser sessions alive between tests. {@link #acquire()} hands out a session that is
+ * sitting on {@link Config#baseUrl()} with no cookies, localStorage or sessionStorage, and
+ * {@link #release(WebDriver)} takes it back, wiping that state so the next test gets a clean
+ * browser without paying for a cold Chrome launch.
+ *
+ * <p>The pool launches {@code min} sessions up front and never holds more than {@code max}
+ * live sessions. Sessions that fail a health check are quit and replaced.
+ *
+ * <p>With a {@code lookahead} of N, handing out a session also starts launching spares in the
+ * background until N are idle or on their way, and released sessions are reset on a background
+ * thread; the next test's @BeforeMethod then picks up a warm session instead of paying for a
+ * launch or reset while the suite waits. {@link PoolStats} shows how much of that work overlapped
+ * the tests.
+ */
+public final class SessionPool {
+
+    private static final Logger LOG = LogManager.getLogger(SessionPool.class);
+    private static final long ACQUIRE_TIMEOUT_MINUTES = 5;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private static volatile SessionPool shared;
+    private static volatile SessionPool browserless;
+
+    private final Supplier<WebDriver> factory;
+    private final String baseUrl;
+    private final int minSize;
+    private final int lookahead;
+    private final Semaphore capacity;
+    private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private final Set<WebDriver> live = ConcurrentHashMap.newKeySet();
+    private final PoolStats stats = new PoolStats();
+    private final AtomicInteger warming = new AtomicInteger();
+    private final AtomicInteger resetting = new AtomicInteger();
+    private volatile boolean closed;
+
+    public SessionPool(Supplier<WebDriver> factory, String baseUrl, int minSize, int maxSize) {
+        this(factory, baseUrl, minSize, maxSize, 0);
+    }
+
+    public SessionPool(Supplier<WebDriver> factory, String baseUrl, int minSize, int maxSize, int lookahead) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize || lookahead < 0) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize
+                    + ", lookahead=" + lookahead);
+        }
+        this.factory = factory;
+        this.baseUrl = baseUrl;
+        this.minSize = minSize;
+        this.lookahead = lookahead;
+        this.capacity = new Semaphore(maxSize);
+        topUp();
+    }
+
+    /**
+     * The pool shared by every test class in this JVM, sized from {@link Config}. With
+     * {@link Config#browserContexts()} above 1 its sessions are {@link BrowserContexts} inside shared
+     * Chrome processes.
+     */
+    public static SessionPool shared() {
+        SessionPool pool = shared;
+        if (pool == null) {
+            synchronized (SessionPool.class) {
+                pool = shared;
+                if (pool == null) {
+                    Supplier<WebDriver> chrome = Config.browserContexts() > 1
+                            ? BrowserContexts::open : DriverFactory::createChrome;
+                    pool = new SessionPool(() -> CommandTimer.instrument(chrome.get()), Config.baseUrl(),
+                            Config.poolMinSize(), Config.poolMaxSize(), Config.poolLookahead());
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "session-pool-shutdown"));
+                    shared = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * The HtmlUnit sessions for {@link Browserless} tests. Nothing is launched up front: a session
+     * starts in milliseconds, so keeping idle ones around buys little.
+     */
+    public static SessionPool browserless() {
+        SessionPool pool = browserless;
+        if (pool == null) {
+            synchronized (SessionPool.class) {
+                pool = browserless;
+                if (pool == null) {
+                    pool = new SessionPool(() -> CommandTimer.instrument(DriverFactory.createHtmlUnit()), Config.baseUrl(),
+                            0, Config.poolMaxSize());
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "browserless-pool-shutdown"));
+                    browserless = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /** Whether {@link #browserless()} has been created in this JVM, without creating it. */
+    public static boolean isBrowserlessStarted() {
+        return browserless != null;
+    }
+
+    /** Whether {@link #shared()} has been created in this JVM, without creating it. */
+    public static boolean isSharedStarted() {
+        return shared != null;
+    }
+
+    public WebDriver acquire() {
+        if (closed) {
+            throw new IllegalStateException("Session pool has been shut down");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(ACQUIRE_TIMEOUT_MINUTES);
+        long waitStart = 0;
+        while (true) {
+            WebDriver driver = idle.pollFirst();
+            if (driver == null) {
+                // Prefer a session that is already being pre-launched or reset over a second cold launch
+                if (warming.get() + resetting.get() == 0 && capacity.tryAcquire()) {
+                    driver = launch();
+                    stats.recordAcquire(false);
+                    topUp();
+                    return driver;
+                }
+                if (waitStart == 0) {
+                    waitStart = System.nanoTime();
+                }
+                driver = awaitIdle(deadline);
+                if (driver == null) {
+                    continue;
+                }
+            }
+            if (isHealthy(driver)) {
+                stats.recordAcquire(true);
+                if (waitStart != 0) {
+                    stats.recordWait(System.nanoTime() - waitStart);
+                }
+                topUp();
+                return driver;
+            }
+            discard(driver);
+        }
+    }
+
+    /** Returns a session to the pool. A session that cannot be reset is thrown away. */
+    public void release(WebDriver driver) {
+        if (driver == null || !live.contains(driver)) {
+            return;
+        }
+        if (closed) {
+            discard(driver);
+            return;
+        }
+        if (lookahead == 0) {
+            resetAndReturn(driver, false);
+            return;
+        }
+        resetting.incrementAndGet();
+        Thread.ofPlatform().daemon().name("session-pool-reset").start(() -> {
+            try {
+                resetAndReturn(driver, true);
+            } finally {
+                resetting.decrementAndGet();
+            }
+        });
+    }
+
+    private void resetAndReturn(WebDriver driver, boolean background) {
+        long start = System.nanoTime();
+        boolean clean = reset(driver);
+        long nanos = System.nanoTime() - start;
+        stats.recordReset(nanos);
+        if (background) {
+            stats.recordBackground(nanos);
+        }
+        if (clean && !closed) {
+            idle.offerFirst(driver);
+        } else {
+            discard(driver);
+        }
+    }
+
+    public PoolStats stats() {
+        return stats;
+    }
+
+    public void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        idle.clear();
+        live.forEach(this::quitQuietly);
+        live.clear();
+        LOG.info("Session pool: {}", stats);
+    }
+
+    private WebDriver awaitIdle(long deadline) {
+        if (System.nanoTime() > deadline) {
+            throw new IllegalStateException("No browser session became available within "
+                    + ACQUIRE_TIMEOUT_MINUTES + " minutes");
+        }
+        try {
+            return idle.pollFirst(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+        }
+    }
+
+    private WebDriver launch() {
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = factory.get();
+            driver.get(baseUrl);
+            live.add(driver);
+            stats.recordColdLaunch(System.nanoTime() - start);
+            return driver;
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Launches sessions in the background until {@code min} are alive and {@code lookahead} are
+     * idle or on their way, never past {@code max}.
+     */
+    private synchronized void topUp() {
+        int spares = idle.size() + warming.get() + resetting.get();
+        int missing = Math.max(minSize - live.size() - warming.get(), lookahead - spares);
+        for (int i = 0; i < missing && capacity.tryAcquire(); i++) {
+            warming.incrementAndGet();
+            Thread.ofPlatform().daemon().name("session-pool-warmup").start(() -> {
+                try {
+                    long start = System.nanoTime();
+                    WebDriver driver = launch();
+                    stats.recordBackground(System.nanoTime() - start);
+                    idle.offerLast(driver);
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not pre-launch a browser session", e);
+                } finally {
+                    warming.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            LOG.warn("Discarding crashed browser session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean reset(WebDriver driver) {
+        try {
+            // Tests such as the About link can leave extra windows or another origin behind
+            String main = driver.getWindowHandles().iterator().next();
+            for (String handle : driver.getWindowHandles()) {
+                if (!handle.equals(main)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(main);
+
+            if (!sameOrigin(driver.getCurrentUrl(), baseUrl)) {
+                driver.get(baseUrl);
+            }
+            ((JavascriptExecutor) driver).executeScript(
+                    "window.localStorage.clear(); window.sessionStorage.clear();");
+            // Clearing the HTTP cache too keeps the next test's page weight independent of what
+            // the previous one happened to download
+            if (driver instanceof HasCdp cdp) {
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                cdp.executeCdpCommand("Network.clearBrowserCache", Map.of());
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+            driver.get(baseUrl);
+            return true;
+        } catch (WebDriverException e) {
+            LOG.warn("Could not reset browser session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        stats.recordDiscard();
+        if (live.remove(driver)) {
+            capacity.release();
+        }
+        quitQuietly(driver);
+        if (!closed) {
+            topUp();
+        }
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            LOG.debug("Ignoring failure while quitting a session: {}", e.getMessage());
+        }
+    }
+
+    private static boolean sameOrigin(String url, String other) {
+        try {
+            URI a = URI.create(url);
+            URI b = URI.create(other);
+            return a.getScheme() != null && a.getScheme().equals(b.getScheme())
+                    && a.getHost() != null && a.getHost().equals(b.getHost())
+                    && a.getPort() == b.getPort();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
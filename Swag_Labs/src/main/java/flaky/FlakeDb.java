@@ -0,0 +1,110 @@
+package flaky;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.JsonException;
+import store.JsonStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Flake history of every test, keyed by qualified method name ({@code tests.CartTests.testX}). A
+ * run counts as flaky for a test when it failed and then passed on a retry. The rate is an
+ * exponentially weighted mean over runs, so a test that has been fixed drifts back out of
+ * quarantine after a few clean runs.
+ *
+ * <p>The file is plain JSON ({@code {"tests.CartTests.testX": {"rate": 0.36, "runs": 9, "flaky": 2}}})
+ * kept in a {@link JsonStore}, like the timing database, so shard JVMs can share it (-Dflake.db).
+ */
+public final class FlakeDb {
+
+    private static final Logger LOG = LogManager.getLogger(FlakeDb.class);
+
+    /** Weight of the newest run in a rate. */
+    static final double NEWEST_WEIGHT = 0.2;
+
+    private final Map<String, Entry> entries;
+
+    private FlakeDb(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /** One test's flake rate, the runs it is based on and how many of them were flaky. */
+    public record Entry(double rate, int runs, int flaky) {
+    }
+
+    /** Reads {@code file}; a missing or unreadable file gives an empty database. */
+    public static FlakeDb load(Path file) {
+        try {
+            return fromJson(JsonStore.read(file));
+        } catch (IOException | JsonException e) {
+            LOG.warn("Ignoring unreadable flake database {}: {}", file, e.getMessage());
+            return new FlakeDb(new TreeMap<>());
+        }
+    }
+
+    /**
+     * Folds one run's outcomes (test to whether it was flaky) into the database at {@code file},
+     * creating it if needed. Safe to call from several JVMs at once.
+     */
+    public static void update(Path file, Map<String, Boolean> flakyByTest) {
+        if (flakyByTest.isEmpty()) {
+            return;
+        }
+        try {
+            JsonStore.update(file, saved -> {
+                FlakeDb db = fromJson(saved);
+                flakyByTest.forEach(db::record);
+                return db.toJson();
+            });
+            LOG.info("Recorded {} test outcomes in {}", flakyByTest.size(), file);
+        } catch (IOException e) {
+            LOG.warn("Could not update flake database {}: {}", file, e.getMessage());
+        }
+    }
+
+    public Entry get(String test) {
+        return entries.get(test);
+    }
+
+    /** Tests with at least {@code minRuns} runs whose rate is {@code threshold} or more. */
+    public Set<String> over(double threshold, int minRuns) {
+        return entries.entrySet().stream()
+                .filter(e -> e.getValue().runs() >= minRuns && e.getValue().rate() >= threshold)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    void record(String test, boolean flaky) {
+        Entry old = entries.get(test);
+        double sample = flaky ? 1 : 0;
+        double rate = old == null ? sample : old.rate() * (1 - NEWEST_WEIGHT) + sample * NEWEST_WEIGHT;
+        entries.put(test, new Entry(Math.round(rate * 1000) / 1000.0, old == null ? 1 : old.runs() + 1,
+                (old == null ? 0 : old.flaky()) + (flaky ? 1 : 0)));
+    }
+
+    private static FlakeDb fromJson(Map<String, Object> saved) {
+        Map<String, Entry> entries = new TreeMap<>();
+        saved.forEach((test, value) -> {
+            if (value instanceof Map<?, ?> row && row.get("rate") instanceof Number rate) {
+                int runs = row.get("runs") instanceof Number n ? n.intValue() : 1;
+                int flaky = row.get("flaky") instanceof Number n ? n.intValue() : 0;
+                entries.put(test, new Entry(rate.doubleValue(), runs, flaky));
+            }
+        });
+        return new FlakeDb(entries);
+    }
+
+    private Map<String, Object> toJson() {
+        Map<String, Object> saved = new TreeMap<>();
+        entries.forEach((test, entry) -> saved.put(test,
+                Map.of("rate", entry.rate(), "runs", entry.runs(), "flaky", entry.flaky())));
+        return saved;
+    }
+}
@@ -0,0 +1,102 @@
+package flaky;
+
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retry and flake bookkeeping for the current run. A failed test is rerun straight away by
+ * {@link RetryFlaky}, up to {@link Config#flakeRetries()} times; the session listener has already
+ * put its session back in the pool, so the rerun's @BeforeMethod picks up a warm, reset session
+ * instead of launching a browser. A test that passes on a rerun is flaky for this run.
+ *
+ * <p>Each test's outcome goes into the {@link FlakeDb} when the suite finishes. Tests in the
+ * {@value #QUARANTINE_GROUP} group (see {@link Quarantine}) that still fail after their reruns stay
+ * failed, in the separate quarantine {@code <test>} of the report, so a real regression there is
+ * not hidden.
+ */
+public final class Flakes {
+
+    /** Group of the tests whose flake rate put them in quarantine. */
+    public static final String QUARANTINE_GROUP = "quarantine";
+
+    private static final Logger LOG = LogManager.getLogger(Flakes.class);
+    // Reruns done per invocation (test plus its data-provider row), until it passes or gives up
+    private static final Map<String, Integer> RERUNS = new ConcurrentHashMap<>();
+    // Whether each test finished this run as flaky
+    private static final Map<String, Boolean> OUTCOMES = new ConcurrentHashMap<>();
+
+    private Flakes() {
+    }
+
+    /** Decides whether TestNG reruns the failed {@code result}; see {@link RetryFlaky}. */
+    static boolean retry(ITestResult result) {
+        String key = key(result);
+        int done = RERUNS.getOrDefault(key, 0);
+        if (done >= Config.flakeRetries()) {
+            RERUNS.remove(key);
+            return false;
+        }
+        RERUNS.put(key, done + 1);
+        Throwable failure = result.getThrowable();
+        LOG.info("Rerunning {} on a warm session ({} of {}) after: {}", result.getMethod().getQualifiedName(),
+                done + 1, Config.flakeRetries(), failure == null ? "failure" : String.valueOf(failure).lines().findFirst().orElse(""));
+        return true;
+    }
+
+    /**
+     * Called by the session listener when a test method returns, before TestNG decides on a rerun.
+     * Records the outcome once the test is done for good.
+     */
+    public static void endTest(ITestResult result) {
+        String key = key(result);
+        String test = result.getMethod().getQualifiedName();
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS -> {
+                boolean flaky = RERUNS.remove(key) != null;
+                OUTCOMES.merge(test, flaky, Boolean::logicalOr);
+                if (flaky) {
+                    LOG.warn("{} passed on a rerun: flaky", test);
+                }
+            }
+            case ITestResult.FAILURE -> {
+                if (!(result.getMethod().getRetryAnalyzer(result) instanceof RetryFlaky)) {
+                    RERUNS.remove(key);
+                } else if (RERUNS.getOrDefault(key, 0) < Config.flakeRetries()) {
+                    return;
+                }
+                // Out of reruns; RetryFlaky clears the count when TestNG asks it next
+                OUTCOMES.merge(test, false, Boolean::logicalOr);
+                if (Arrays.asList(result.getMethod().getGroups()).contains(QUARANTINE_GROUP)) {
+                    LOG.warn("Quarantined test {} failed: {}", test, result.getThrowable());
+                }
+            }
+            default -> RERUNS.remove(key);
+        }
+    }
+
+    /** Folds this run's outcomes into the database at {@code file} and logs the flaky tests. */
+    public static void save(Path file) {
+        Map<String, Boolean> taken = new HashMap<>();
+        for (String test : OUTCOMES.keySet()) {
+            taken.put(test, OUTCOMES.remove(test));
+        }
+        List<String> flaky = taken.entrySet().stream().filter(Map.Entry::getValue).map(Map.Entry::getKey).sorted().toList();
+        if (!flaky.isEmpty()) {
+            LOG.warn("Flaky this run (passed on a rerun): {}", flaky);
+        }
+        FlakeDb.update(file, taken);
+    }
+
+    private static String key(ITestResult result) {
+        return result.getMethod().getQualifiedName() + Arrays.deepToString(result.getParameters());
+    }
+}
@@ -0,0 +1,148 @@
+package flaky;
+
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Suite listener (registered in the testng*.xml files) that takes flaky tests off the critical path.
+ *
+ * <p>Every test without a retry analyzer of its own gets {@link RetryFlaky}. Tests whose
+ * {@link FlakeDb} rate is at or over {@link Config#flakeQuarantinePercent()} join the
+ * {@value Flakes#QUARANTINE_GROUP} group and move out of their {@code <test>} into a
+ * "{@code <test name> (quarantine)}" test of their own that runs its methods in parallel, alongside
+ * the original one rather than after it. Their failures are still reported as failures, under that
+ * test (see {@link Flakes}), and they leave quarantine on their own once enough clean runs bring
+ * the rate down.
+ */
+public class Quarantine implements IAnnotationTransformer, IAlterSuiteListener {
+
+    private static final Logger LOG = LogManager.getLogger(Quarantine.class);
+    private static volatile Set<String> quarantined;
+
+    // TestNG declares these parameters raw; Class<?> and Constructor<?> would not override it
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        Class<?> analyzer = annotation.getRetryAnalyzerClass();
+        if (analyzer == null || analyzer == DisabledRetryAnalyzer.class) {
+            annotation.setRetryAnalyzer(RetryFlaky.class);
+        }
+        if (testMethod != null && quarantined().contains(testMethod.getDeclaringClass().getName() + "." + testMethod.getName())) {
+            List<String> groups = new ArrayList<>(Arrays.asList(annotation.getGroups()));
+            groups.add(Flakes.QUARANTINE_GROUP);
+            annotation.setGroups(groups.toArray(String[]::new));
+        }
+    }
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (quarantined().isEmpty()) {
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            split(suite);
+        }
+    }
+
+    private static void split(XmlSuite suite) {
+        boolean moved = false;
+        for (XmlTest test : List.copyOf(suite.getTests())) {
+            List<XmlClass> quarantineClasses = new ArrayList<>();
+            for (XmlClass xmlClass : List.copyOf(test.getXmlClasses())) {
+                List<String> methods = quarantinedMethods(xmlClass);
+                if (methods.isEmpty()) {
+                    continue;
+                }
+                if (xmlClass.getIncludedMethods().isEmpty()) {
+                    xmlClass.getExcludedMethods().addAll(methods);
+                } else {
+                    xmlClass.getIncludedMethods().removeIf(include -> methods.contains(include.getName()));
+                    // An empty include list would mean every method again
+                    if (xmlClass.getIncludedMethods().isEmpty()) {
+                        test.getXmlClasses().remove(xmlClass);
+                    }
+                }
+                XmlClass copy = new XmlClass(xmlClass.getName(), false);
+                methods.forEach(method -> copy.getIncludedMethods().add(new XmlInclude(method)));
+                quarantineClasses.add(copy);
+                LOG.warn("Quarantined {}: {}", xmlClass.getName(), methods);
+            }
+            if (quarantineClasses.isEmpty()) {
+                continue;
+            }
+            // Pin what the test inherited from the suite before the suite switches to parallel tests
+            test.setParallel(test.getParallel());
+            test.setThreadCount(test.getThreadCount());
+            if (test.getXmlClasses().isEmpty()) {
+                suite.getTests().remove(test);
+            }
+            XmlTest quarantine = new XmlTest(suite, suite.getTests().size());
+            quarantine.setName(test.getName() + " (quarantine)");
+            quarantine.setParallel(XmlSuite.ParallelMode.METHODS);
+            quarantine.setThreadCount(test.getThreadCount());
+            quarantine.setParameters(test.getLocalParameters());
+            quarantine.setXmlClasses(quarantineClasses);
+            moved = true;
+        }
+        if (moved) {
+            suite.setParallel(XmlSuite.ParallelMode.TESTS);
+            suite.setThreadCount(suite.getTests().size());
+        }
+    }
+
+    /** Quarantined methods of {@code xmlClass} that its {@code <class>} entry would run. */
+    private static List<String> quarantinedMethods(XmlClass xmlClass) {
+        List<String> methods = new ArrayList<>();
+        String prefix = xmlClass.getName() + ".";
+        for (String id : quarantined()) {
+            if (!id.startsWith(prefix)) {
+                continue;
+            }
+            String method = id.substring(prefix.length());
+            boolean included = xmlClass.getIncludedMethods().isEmpty()
+                    || xmlClass.getIncludedMethods().stream().anyMatch(include -> include.getName().equals(method));
+            if (included && !xmlClass.getExcludedMethods().contains(method) && exists(xmlClass, method)) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    // The database can still name a test that has since been renamed or removed
+    private static boolean exists(XmlClass xmlClass, String method) {
+        try {
+            Class<?> type = Class.forName(xmlClass.getName(), false, Thread.currentThread().getContextClassLoader());
+            return Arrays.stream(type.getMethods()).anyMatch(candidate -> candidate.getName().equals(method));
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /** Tests over the quarantine threshold in the flake database, read once per JVM. */
+    static Set<String> quarantined() {
+        Set<String> tests = quarantined;
+        if (tests == null) {
+            int percent = Config.flakeQuarantinePercent();
+            tests = percent <= 0 ? Set.of()
+                    : FlakeDb.load(Config.flakeDb()).over(percent / 100.0, Config.flakeMinRuns());
+            quarantined = tests;
+        }
+        return tests;
+    }
+}
@@ -0,0 +1,16 @@
+package flaky;
+
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+/**
+ * Reruns a failed test immediately, up to -Dflake.retries times. {@link Quarantine} puts it on
+ * every test that has no retry analyzer of its own; the counting lives in {@link Flakes}.
+ */
+public class RetryFlaky implements IRetryAnalyzer {
+
+    @Override
+    public boolean retry(ITestResult result) {
+        return Flakes.retry(result);
+    }
+}
@@ -0,0 +1,134 @@
+package listeners;
+
+import checkpoints.Checkpoints;
+import checkpoints.Flow;
+import checkpoints.FlowStep;
+import checkpoints.StartsAt;
+import drivers.DriverRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the {@link Flow} steps of each test before its body, sharing work across tests the way a
+ * prefix tree would: every step sequence that starts two or more tests (and each test's full
+ * sequence) is snapshotted by {@link Checkpoints} the first time it is reached, and later tests
+ * resume from the deepest snapshot on their path instead of replaying it. A {@link Flow#replay()}
+ * test runs its whole path through the UI and only contributes snapshots; a {@link StartsAt} test
+ * restores its named checkpoint, whose steps take part in the tree like a flow's.
+ *
+ * <p>Tests are ordered depth first along the tree so a shared prefix is built before the tests
+ * that branch from it; tests without {@link Flow} keep their place ahead of them. The flow runs
+ * inside the test's own invocation, so a step that breaks fails that test alone and the report
+ * still has one result per test.
+ *
+ * <p>Register it after {@link SessionListener}, which binds the session the flow runs on.
+ */
+public class FlowScheduler implements IMethodInterceptor, IInvokedMethodListener, ISuiteListener {
+
+    private static final Logger LOG = LogManager.getLogger(FlowScheduler.class);
+
+    // Shared across instances: each @Listeners declaration gets its own
+    private static final Set<List<FlowStep>> SNAPSHOT_AT = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong DECLARED = new AtomicLong();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Map<List<FlowStep>, Integer> starts = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            List<FlowStep> steps = flowOf(instance.getMethod().getConstructorOrMethod().getMethod());
+            for (int length = 1; length <= steps.size(); length++) {
+                starts.merge(List.copyOf(steps.subList(0, length)), 1, Integer::sum);
+            }
+            if (!steps.isEmpty()) {
+                SNAPSHOT_AT.add(steps);
+            }
+        }
+        starts.forEach((prefix, count) -> {
+            if (count > 1) {
+                SNAPSHOT_AT.add(prefix);
+            }
+        });
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        // Stable sort: tests without a flow compare as the empty path and stay first, in order
+        ordered.sort(Comparator.comparing(
+                instance -> flowOf(instance.getMethod().getConstructorOrMethod().getMethod()),
+                FlowScheduler::compareDepthFirst));
+        return ordered;
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        Method test = method.getTestMethod().getConstructorOrMethod().getMethod();
+        List<FlowStep> steps = flowOf(test);
+        if (steps.isEmpty()) {
+            return;
+        }
+        DECLARED.addAndGet(steps.size());
+        StartsAt startsAt = test.getAnnotation(StartsAt.class);
+        if (startsAt != null) {
+            Checkpoints.restore(DriverRegistry.current(), startsAt.value());
+        } else if (test.getAnnotation(Flow.class).replay()) {
+            Checkpoints.replay(DriverRegistry.current(), steps, SNAPSHOT_AT::contains);
+        } else {
+            Checkpoints.advance(DriverRegistry.current(), steps, SNAPSHOT_AT::contains);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        long declared = DECLARED.get();
+        if (declared > 0) {
+            LOG.info("Suite '{}' flows: {} of {} declared UI steps executed, {} snapshot restores",
+                    suite.getName(), Checkpoints.stepsRun(), declared, Checkpoints.restores());
+        }
+    }
+
+    /** Whether the scheduler sets up {@code method}'s state itself, so a shared login should not. */
+    public static boolean hasFlow(Method method) {
+        return !flowOf(method).isEmpty();
+    }
+
+    private static List<FlowStep> flowOf(Method method) {
+        if (method == null) {
+            return List.of();
+        }
+        StartsAt startsAt = method.getAnnotation(StartsAt.class);
+        if (startsAt != null) {
+            return startsAt.value().steps();
+        }
+        Flow flow = method.getAnnotation(Flow.class);
+        return flow == null ? List.of() : List.of(flow.value());
+    }
+
+    private static int compareDepthFirst(List<FlowStep> a, List<FlowStep> b) {
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            int order = a.get(i).compareTo(b.get(i));
+            if (order != 0) {
+                return order;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    }
+}
@@ -0,0 +1,177 @@
+package listeners;
+
+import artifacts.FailureArtifacts;
+import breaker.Preconditions;
+import config.Config;
+import console.ConsoleStream;
+import data.DataRows;
+import drivers.DriverRegistry;
+import drivers.LeanProfile;
+import drivers.PageWeight;
+import drivers.SessionPool;
+import flaky.Flakes;
+import metrics.CommandMetrics;
+import network.NetworkRecorder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import perf.PerfProbe;
+import sharding.TestDurations;
+import waits.DomState;
+
+import java.nio.file.Path;
+
+/**
+ * Releases the browser session bound to a TestNG worker thread once the test on that thread is
+ * done. Sessions are bound lazily by {@link DriverRegistry} the first time a @BeforeMethod or
+ * test touches the driver, so tests that are skipped before that never launch a browser.
+ *
+ * <p>The session goes back to the pool as soon as the test method returns, so cleanup that still
+ * needs the browser belongs in the test itself rather than in an @AfterMethod.
+ *
+ * <p>It also scopes the per-method bookkeeping: command timings ({@link CommandMetrics}), the
+ * lean profile's per-test resource allowances, the page weight sample and the test's duration
+ * for the shard planner ({@link TestDurations}), and writes their reports when the suite finishes.
+ * A failed test's browser state is captured here too ({@link FailureArtifacts}), while the
+ * session is still bound, and so is the per-test network trace ({@link NetworkRecorder}), whose
+ * path ends up in the result's {@value #NETWORK_TRACE_ATTRIBUTE} attribute. The trace, the
+ * console stream and the duration clock start when the session is bound, never ahead of it.
+ * Page timings ({@link PerfProbe}) are checked against their budgets when the test ends, and the
+ * uncaught JavaScript errors {@link ConsoleStream} collected against the -Djs.errors policy. Reruns and
+ * flake outcomes are tracked by {@link Flakes} and saved with the durations, and the time
+ * {@link DomState} absence checks saved is logged with the pool stats. Before a test or
+ * @BeforeMethod runs it tells {@link DriverRegistry} which pool to bind from, so
+ * {@link drivers.Browserless} tests get an HtmlUnit session. Final results, after any rerun, let a
+ * parallel {@link DataRows} provider hand out its next row.
+ */
+public class SessionListener implements IInvokedMethodListener, ISuiteListener, ITestListener {
+
+    /** Result attribute holding the test's network trace when -Dnetwork.record is on. */
+    public static final String NETWORK_TRACE_ATTRIBUTE = "networkTrace";
+
+    private static final Logger LOG = LogManager.getLogger(SessionListener.class);
+
+    static {
+        // Each @Listeners declaration gets its own instance; the hook must be added once
+        DriverRegistry.onBind(SessionListener::sessionBound);
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() || method.getTestMethod().isBeforeMethodConfiguration()) {
+            DriverRegistry.selectFor(method.getTestMethod().getConstructorOrMethod().getMethod());
+            if (DriverRegistry.isBound()) {
+                sessionBound(DriverRegistry.current());
+            }
+        }
+        if (method.isTestMethod()) {
+            LeanProfile.beforeTest(method.getTestMethod().getConstructorOrMethod().getMethod());
+        }
+        CommandMetrics.begin(method.getTestMethod().getQualifiedName());
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        CommandMetrics.end();
+        ITestNGMethod testMethod = method.getTestMethod();
+        boolean testFinished = method.isTestMethod();
+        // A failed @BeforeMethod means the test itself will be skipped
+        boolean setUpFailed = testMethod.isBeforeMethodConfiguration()
+                && testResult.getStatus() != ITestResult.SUCCESS;
+        if (testFinished || setUpFailed) {
+            // May turn a pass into a failure, so they go before anything that looks at the status
+            PerfProbe.endTest(testResult);
+            ConsoleStream.endTest(testResult);
+        }
+        if (testFinished && testResult.getStatus() == ITestResult.FAILURE && DriverRegistry.isBound()) {
+            FailureArtifacts.capture(testMethod.getQualifiedName(), DriverRegistry.current(), testResult.getThrowable());
+        }
+        if (testFinished || setUpFailed) {
+            Path trace = NetworkRecorder.end(testMethod.getQualifiedName());
+            if (trace != null) {
+                testResult.setAttribute(NETWORK_TRACE_ATTRIBUTE, trace.toAbsolutePath().toString());
+            }
+        }
+        if (testFinished && DriverRegistry.isBound()) {
+            PageWeight.sample(testMethod.getQualifiedName(), testResult.getParameters(), DriverRegistry.current());
+        }
+        if (testFinished) {
+            LeanProfile.afterTest();
+            TestDurations.end(testMethod.getQualifiedName(), testResult.getStatus() != ITestResult.SKIP);
+            Flakes.endTest(testResult);
+        }
+        if (setUpFailed) {
+            TestDurations.end(testMethod.getQualifiedName(), false);
+        }
+        if (testFinished || setUpFailed) {
+            DriverRegistry.release();
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        rowFinished(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        rowFinished(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        rowFinished(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        rowFinished(result);
+    }
+
+    private static void rowFinished(ITestResult result) {
+        // A rerun attempt is reported as a retried skip; the row is not done yet
+        if (!result.wasRetried()) {
+            DataRows.rowFinished(result.getMethod().getConstructorOrMethod().getMethod());
+        }
+    }
+
+    /** Starts the per-test clock and session taps; each ignores a second call for the same test. */
+    private static void sessionBound(WebDriver session) {
+        TestDurations.begin();
+        if (NetworkRecorder.enabled()) {
+            NetworkRecorder.begin(session);
+        }
+        if (ConsoleStream.enabled()) {
+            ConsoleStream.begin(session);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (SessionPool.isSharedStarted()) {
+            LOG.info("Suite '{}' session pool: {}", suite.getName(), SessionPool.shared().stats());
+        }
+        if (SessionPool.isBrowserlessStarted()) {
+            LOG.info("Suite '{}' browserless pool: {}", suite.getName(), SessionPool.browserless().stats());
+        }
+        if (DomState.stats().checks() > 0) {
+            LOG.info("Suite '{}' absence checks: {}", suite.getName(), DomState.stats());
+        }
+        Preconditions.report();
+        FailureArtifacts.flush();
+        CommandMetrics.export(Config.outputDir());
+        PerfProbe.report(Config.outputDir());
+        TestDurations.save(Config.timingDb());
+        Flakes.save(Config.flakeDb());
+        String profile = Config.browserProfile();
+        PageWeight.report(Config.outputDir(), profile,
+                LeanProfile.enabled() ? Config.BROWSER_PROFILE_FULL : Config.BROWSER_PROFILE_LEAN);
+    }
+}
@@ -0,0 +1,46 @@
+package load;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The user journeys the load generator replays, taken from the end-to-end tests they mirror.
+ */
+public enum Journey {
+
+    /** EndToEndTests.testCompletePurchaseFlow. */
+    COMPLETE_PURCHASE("complete-purchase", List.of(Step.OPEN_LOGIN, Step.LOGIN, Step.ADD_BACKPACK,
+            Step.OPEN_CART, Step.CHECKOUT, Step.FILL_INFO, Step.FINISH)),
+    /** EndToEndTests.testPurchaseWithMultipleItems. */
+    MULTIPLE_ITEMS("multiple-items", List.of(Step.OPEN_LOGIN, Step.LOGIN, Step.ADD_BACKPACK, Step.ADD_BIKE_LIGHT,
+            Step.OPEN_CART, Step.CHECKOUT, Step.FILL_INFO, Step.FINISH));
+
+    private final String id;
+    private final List<Step> steps;
+
+    Journey(String id, List<Step> steps) {
+        this.id = id;
+        this.steps = steps;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public List<Step> steps() {
+        return steps;
+    }
+
+    public static Journey fromName(String name) {
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for (Journey journey : values()) {
+            if (journey.id.equals(normalized)) {
+                return journey;
+            }
+        }
+        throw new IllegalArgumentException("Unknown journey '" + name + "', expected one of "
+                + Arrays.stream(values()).map(Journey::id).collect(Collectors.joining(", ")));
+    }
+}
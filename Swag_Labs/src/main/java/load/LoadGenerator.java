@@ -0,0 +1,207 @@
+package load;
+
+import config.Config;
+import metrics.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays the end-to-end {@link Journey journeys} as protocol-level virtual users: no browser, just
+ * the page and asset requests a browser would make, one virtual thread per user. Users start evenly
+ * over the ramp-up, pause for the think time after every step and keep going until the run's
+ * duration is up, so thousands of them fit in one JVM.
+ *
+ * <p>Every page step lands in a {@link LatencyHistogram}; the report gives throughput and
+ * p50/p95/p99 latency per step and per journey, printed and written to {@code load-report.json} and
+ * {@code load-report.txt}. Run it with {@code org.example.Main load} or the {@code load} profile.
+ */
+public final class LoadGenerator {
+
+    private static final Logger LOG = LogManager.getLogger(LoadGenerator.class);
+
+    private LoadGenerator() {
+    }
+
+    /** What to run: how many users, how fast they arrive, how long they stay and which journeys they take. */
+    public record Settings(String baseUrl, String user, int users, Duration rampUp, Duration duration,
+                           Duration thinkTime, List<Journey> journeys) {
+
+        public Settings {
+            if (users < 1) {
+                throw new IllegalArgumentException("Load needs at least one user but was " + users);
+            }
+            if (journeys.isEmpty()) {
+                throw new IllegalArgumentException("Load needs at least one journey");
+            }
+            journeys = List.copyOf(journeys);
+        }
+
+        /** Settings from the {@code load.*} system properties; see {@link Config}. */
+        public static Settings fromConfig() {
+            return new Settings(Config.baseUrl(), Config.loginUser(), Config.loadUsers(), Config.loadRampUp(),
+                    Config.loadDuration(), Config.loadThinkTime(), Config.loadJourneys());
+        }
+    }
+
+    /** Outcome of one load run. */
+    public record Report(Settings settings, Duration elapsed, Map<String, Object> json, String text, long errors) {
+    }
+
+    /** Runs the load described by {@code settings}, blocking until it is over, and writes the report to {@code dir}. */
+    public static Report run(Settings settings, Path dir) {
+        LOG.info("Load: {} users on {} over {} s ramp-up for {} s, {} ms think time, journeys {}",
+                settings.users(), settings.baseUrl(), settings.rampUp().toSeconds(), settings.duration().toSeconds(),
+                settings.thinkTime().toMillis(), settings.journeys().stream().map(Journey::id).toList());
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        Run run = new Run(settings, client, System.nanoTime());
+        // Closing the executor waits for every user to reach the deadline
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            long gapNanos = settings.rampUp().toNanos() / settings.users();
+            for (int i = 0; i < settings.users() && !run.expired(); i++) {
+                users.submit(new VirtualUser(run));
+                if (gapNanos > 0) {
+                    sleep(gapNanos);
+                }
+            }
+        }
+        Report report = run.report();
+        write(report, dir);
+        return report;
+    }
+
+    private static void write(Report report, Path dir) {
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("load-report.json"), new Json().toJson(report.json()));
+            Files.writeString(dir.resolve("load-report.txt"), report.text());
+        } catch (IOException e) {
+            LOG.warn("Could not write load report: {}", e.getMessage());
+        }
+        LOG.info("{}", report.text());
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** State shared by the virtual users of one run. */
+    static final class Run {
+
+        private final Settings settings;
+        private final HttpClient client;
+        private final URI baseUri;
+        private final long startNanos;
+        private final long deadlineNanos;
+        private final Map<String, Tally> tallies = new ConcurrentHashMap<>();
+
+        Run(Settings settings, HttpClient client, long startNanos) {
+            this.settings = settings;
+            this.client = client;
+            this.baseUri = URI.create(settings.baseUrl());
+            this.startNanos = startNanos;
+            this.deadlineNanos = startNanos + settings.duration().toNanos();
+        }
+
+        Settings settings() {
+            return settings;
+        }
+
+        HttpClient client() {
+            return client;
+        }
+
+        URI baseUri() {
+            return baseUri;
+        }
+
+        boolean expired() {
+            return System.nanoTime() - deadlineNanos >= 0;
+        }
+
+        void stepFinished(Step step, long nanos, String error) {
+            Tally tally = tally("step " + step.id());
+            if (error == null) {
+                tally.latency.recordNanos(nanos);
+            } else if (tally.errors.incrementAndGet() == 1) {
+                // One line per step is enough to see what is wrong without flooding the log
+                LOG.warn("Step {} failed: {}", step.id(), error);
+            }
+        }
+
+        void journeyCompleted(Journey journey, long nanos) {
+            tally("journey " + journey.id()).latency.recordNanos(nanos);
+        }
+
+        private Tally tally(String name) {
+            return tallies.computeIfAbsent(name, key -> new Tally());
+        }
+
+        Report report() {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+            double seconds = Math.max(elapsed.toNanos() / 1e9, 1e-9);
+            Map<String, Object> rows = new LinkedHashMap<>();
+            StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                    "Load: %d users, %.1f s (ms)%n%-32s %8s %7s %9s %8s %8s %8s %8s%n", settings.users(), seconds,
+                    "name", "count", "errors", "per sec", "p50", "p95", "p99", "max"));
+            long errors = 0;
+            for (String name : tallies.keySet().stream().sorted().toList()) {
+                Tally tally = tallies.get(name);
+                LatencyHistogram h = tally.latency;
+                long failed = tally.errors.get();
+                errors += failed;
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("count", h.count());
+                row.put("errors", failed);
+                row.put("perSecond", round(h.count() / seconds));
+                row.put("p50Ms", round(h.percentileMillis(0.50)));
+                row.put("p95Ms", round(h.percentileMillis(0.95)));
+                row.put("p99Ms", round(h.percentileMillis(0.99)));
+                row.put("maxMs", round(h.maxMillis()));
+                rows.put(name, row);
+                text.append(String.format(Locale.ROOT, "%-32s %8d %7d %9.2f %8.1f %8.1f %8.1f %8.1f%n", name, h.count(),
+                        failed, h.count() / seconds, h.percentileMillis(0.50), h.percentileMillis(0.95),
+                        h.percentileMillis(0.99), h.maxMillis()));
+            }
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("baseUrl", settings.baseUrl());
+            json.put("users", settings.users());
+            json.put("rampUpSeconds", settings.rampUp().toSeconds());
+            json.put("thinkTimeMs", settings.thinkTime().toMillis());
+            json.put("elapsedSeconds", round(seconds));
+            json.put("rows", rows);
+            return new Report(settings, elapsed, json, text.toString(), errors);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+
+    private static final class Tally {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,40 @@
+package load;
+
+/**
+ * One step of a load-test {@link Journey}, as the browser sees it on the wire. Saucedemo keeps the
+ * cart and the checkout form in the browser, so only page loads reach the server; steps such as
+ * adding an item have no request and only cost the virtual user its think time. Ids match
+ * {@link checkpoints.FlowStep} where the step is the same.
+ */
+public enum Step {
+
+    OPEN_LOGIN("open-login", ""),
+    LOGIN("login", "inventory.html"),
+    ADD_BACKPACK("add-backpack", null),
+    ADD_BIKE_LIGHT("add-bike-light", null),
+    OPEN_CART("open-cart", "cart.html"),
+    CHECKOUT("checkout", "checkout-step-one.html"),
+    FILL_INFO("fill-info", "checkout-step-two.html"),
+    FINISH("finish", "checkout-complete.html");
+
+    private final String id;
+    private final String path;
+
+    Step(String id, String path) {
+        this.id = id;
+        this.path = path;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /** Page the step loads, relative to the base URL; {@code null} when it stays in the browser. */
+    public String path() {
+        return path;
+    }
+
+    public boolean sendsRequest() {
+        return path != null;
+    }
+}
@@ -0,0 +1,140 @@
+package load;
+
+import auth.AuthService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One simulated shopper, run on its own virtual thread. It replays journeys back to back until the
+ * deadline: each page step fetches the page, then the scripts and stylesheets it references that this
+ * user has not fetched yet (as a browser cache would), in parallel. The session cookie is sent
+ * from the login step on, as the browser does after signing in.
+ */
+final class VirtualUser implements Runnable {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern ASSET = Pattern.compile(
+            "<(?:script|link)\\b[^>]*?\\b(?:src|href)\\s*=\\s*[\"']([^\"'#]+)[\"']", Pattern.CASE_INSENSITIVE);
+
+    private final LoadGenerator.Run run;
+    private final Set<URI> cachedAssets = new HashSet<>();
+    private String cookie;
+
+    VirtualUser(LoadGenerator.Run run) {
+        this.run = run;
+    }
+
+    @Override
+    public void run() {
+        List<Journey> journeys = run.settings().journeys();
+        int next = ThreadLocalRandom.current().nextInt(journeys.size());
+        while (!run.expired() && !Thread.currentThread().isInterrupted()) {
+            Journey journey = journeys.get(next++ % journeys.size());
+            long start = System.nanoTime();
+            if (replay(journey)) {
+                run.journeyCompleted(journey, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /** {@code false} when the journey was cut short by an error or the deadline. */
+    private boolean replay(Journey journey) {
+        cookie = null;
+        for (Step step : journey.steps()) {
+            if (run.expired()) {
+                return false;
+            }
+            if (step.sendsRequest()) {
+                long start = System.nanoTime();
+                String error = load(step);
+                run.stepFinished(step, System.nanoTime() - start, error);
+                if (error != null) {
+                    return false;
+                }
+            }
+            if (!think()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Loads the step's page and its uncached assets; the error, or {@code null} on success. */
+    private String load(Step step) {
+        if (step == Step.LOGIN) {
+            cookie = AuthService.SESSION_COOKIE + "=" + run.settings().user();
+        }
+        URI page = run.baseUri().resolve(step.path());
+        try {
+            HttpResponse<String> response = run.client().send(request(page), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                return "HTTP " + response.statusCode() + " for " + page;
+            }
+            List<CompletableFuture<HttpResponse<Void>>> assets = new ArrayList<>();
+            for (URI asset : assets(page, response.body())) {
+                assets.add(run.client().sendAsync(request(asset), HttpResponse.BodyHandlers.discarding()));
+            }
+            for (CompletableFuture<HttpResponse<Void>> asset : assets) {
+                HttpResponse<Void> assetResponse = asset.join();
+                if (assetResponse.statusCode() >= 400) {
+                    return "HTTP " + assetResponse.statusCode() + " for " + assetResponse.uri();
+                }
+            }
+            return null;
+        } catch (IOException | RuntimeException e) {
+            return e.getClass().getSimpleName() + " for " + page + ": " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted";
+        }
+    }
+
+    /** Same-origin scripts and stylesheets referenced by {@code html} that are not cached yet. */
+    private List<URI> assets(URI page, String html) {
+        List<URI> assets = new ArrayList<>();
+        Matcher matcher = ASSET.matcher(html);
+        while (matcher.find()) {
+            URI asset = page.resolve(matcher.group(1).trim());
+            if (asset.getAuthority() != null && asset.getAuthority().equals(page.getAuthority())
+                    && cachedAssets.add(asset)) {
+                assets.add(asset);
+            }
+        }
+        return assets;
+    }
+
+    private HttpRequest request(URI uri) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET();
+        if (cookie != null) {
+            request.header("Cookie", cookie);
+        }
+        return request.build();
+    }
+
+    /** Pauses for the think time, 50-150% of the configured mean; {@code false} if interrupted. */
+    private boolean think() {
+        long mean = run.settings().thinkTime().toMillis();
+        if (mean <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(mean / 2 + ThreadLocalRandom.current().nextLong(mean + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
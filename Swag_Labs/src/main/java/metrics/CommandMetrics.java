@@ -0,0 +1,111 @@
+package metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Where the time inside tests goes. Every WebDriver command timed by {@link CommandTimer} and every
+ * explicit wait lands in two histograms: one per command type ({@code driver.get},
+ * {@code element.click}, {@code wait.until}, ...) and one per test or configuration method.
+ * Only calls made while a method is running count; the pool's own reset traffic between tests
+ * does not.
+ *
+ * <p>{@link #export(Path)} writes {@code command-latency.json} and a text summary sorted by total
+ * time at suite end.
+ */
+public final class CommandMetrics {
+
+    private static final Logger LOG = LogManager.getLogger(CommandMetrics.class);
+
+    private static final Map<String, LatencyHistogram> BY_COMMAND = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> BY_TEST = new ConcurrentHashMap<>();
+    private static final ThreadLocal<LatencyHistogram> CURRENT_TEST = new ThreadLocal<>();
+
+    private CommandMetrics() {
+    }
+
+    /** Attributes the calling thread's commands to {@code testName} until {@link #end()}. */
+    public static void begin(String testName) {
+        CURRENT_TEST.set(BY_TEST.computeIfAbsent(testName, name -> new LatencyHistogram()));
+    }
+
+    public static void end() {
+        CURRENT_TEST.remove();
+    }
+
+    public static void record(String command, long nanos) {
+        LatencyHistogram test = CURRENT_TEST.get();
+        if (test == null) {
+            return;
+        }
+        test.recordNanos(nanos);
+        BY_COMMAND.computeIfAbsent(command, name -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    public static void export(Path dir) {
+        if (BY_COMMAND.isEmpty()) {
+            return;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("commands", summarize(BY_COMMAND));
+        report.put("tests", summarize(BY_TEST));
+        String text = "Command latency (ms)\n" + table(BY_COMMAND) + "\nPer test (ms)\n" + table(BY_TEST);
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("command-latency.json"), new Json().toJson(report));
+            Files.writeString(dir.resolve("command-latency.txt"), text);
+        } catch (IOException e) {
+            LOG.warn("Could not write command latency report: {}", e.getMessage());
+        }
+        LOG.info("{}", text);
+    }
+
+    private static Map<String, Map<String, Object>> summarize(Map<String, LatencyHistogram> histograms) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        sorted(histograms).forEach(entry -> {
+            LatencyHistogram h = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", h.count());
+            row.put("totalMs", round(h.totalMillis()));
+            row.put("p50Ms", round(h.percentileMillis(0.50)));
+            row.put("p95Ms", round(h.percentileMillis(0.95)));
+            row.put("p99Ms", round(h.percentileMillis(0.99)));
+            row.put("maxMs", round(h.maxMillis()));
+            summary.put(entry.getKey(), row);
+        });
+        return summary;
+    }
+
+    private static String table(Map<String, LatencyHistogram> histograms) {
+        StringBuilder out = new StringBuilder(String.format("%-60s %7s %10s %8s %8s %8s %8s%n",
+                "name", "count", "total", "p50", "p95", "p99", "max"));
+        sorted(histograms).forEach(entry -> {
+            LatencyHistogram h = entry.getValue();
+            out.append(String.format("%-60s %7d %10.1f %8.1f %8.1f %8.1f %8.1f%n", entry.getKey(), h.count(),
+                    h.totalMillis(), h.percentileMillis(0.50), h.percentileMillis(0.95),
+                    h.percentileMillis(0.99), h.maxMillis()));
+        });
+        return out.toString();
+    }
+
+    private static Stream<Map.Entry<String, LatencyHistogram>> sorted(
+            Map<String, LatencyHistogram> histograms) {
+        return histograms.entrySet().stream()
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<String, LatencyHistogram> e) -> e.getValue().totalMillis()).reversed());
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+}
@@ -0,0 +1,79 @@
+package metrics;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link WebDriverListener} that times every call made through a decorated driver, including calls
+ * on the elements, navigation, options and window objects it hands out, and feeds them to
+ * {@link CommandMetrics}. Use {@link #instrument(WebDriver)} to wrap a driver.
+ */
+public final class CommandTimer implements WebDriverListener {
+
+    private static final CommandTimer INSTANCE = new CommandTimer();
+    private static final int MAX_DEPTH = 16;
+
+    // Command names are built once per method and target kind, not on every call
+    private final Map<Method, String> driverNames = new ConcurrentHashMap<>();
+    private final Map<Method, String> elementNames = new ConcurrentHashMap<>();
+    private final Map<Method, String> otherNames = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> starts = ThreadLocal.withInitial(() -> new long[MAX_DEPTH + 1]);
+
+    private CommandTimer() {
+    }
+
+    public static WebDriver instrument(WebDriver driver) {
+        return new EventFiringDecorator<>(INSTANCE).decorate(driver);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        // Slot 0 holds the current depth; calls can nest, e.g. a wait calling back into the driver
+        long[] stack = starts.get();
+        int depth = (int) ++stack[0];
+        if (depth <= MAX_DEPTH) {
+            stack[depth] = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(target, method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(target, method);
+    }
+
+    private void finish(Object target, Method method) {
+        long[] stack = starts.get();
+        int depth = (int) stack[0];
+        if (depth == 0) {
+            return;
+        }
+        stack[0] = depth - 1;
+        if (depth <= MAX_DEPTH) {
+            CommandMetrics.record(nameOf(target, method), System.nanoTime() - stack[depth]);
+        }
+    }
+
+    private String nameOf(Object target, Method method) {
+        if (target instanceof WebElement) {
+            return elementNames.computeIfAbsent(method, m -> "element." + m.getName());
+        }
+        if (target instanceof WebDriver) {
+            return driverNames.computeIfAbsent(method, m -> "driver." + m.getName());
+        }
+        return otherNames.computeIfAbsent(method, m ->
+                m.getDeclaringClass().getSimpleName().toLowerCase(Locale.ROOT) + "." + m.getName());
+    }
+}
@@ -0,0 +1,103 @@
+package network;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the CDP Network events of one request into a HAR 1.2 {@code entries[]} element. Only what
+ * the events carry is filled in; sizes come from {@code encodedDataLength} and timings from the
+ * response's {@code timing} block when Chrome sends one.
+ */
+final class HarEntries {
+
+    private HarEntries() {
+    }
+
+    /** The events seen so far for one request id. */
+    static final class Pending {
+        Map<String, Object> request;
+        Map<String, Object> response;
+        double startedAt;
+        double wallTime;
+        String type;
+    }
+
+    static Map<String, Object> entry(Pending pending, double finishedAt, Number encodedLength,
+                                     String failure, Map<String, Object> content) {
+        Map<String, Object> request = pending.request;
+        Map<String, Object> response = pending.response == null ? Map.of() : pending.response;
+        double totalMs = Math.max(0, (finishedAt - pending.startedAt) * 1000);
+
+        Map<String, Object> har = new LinkedHashMap<>();
+        har.put("startedDateTime", Instant.ofEpochMilli((long) (pending.wallTime * 1000)).toString());
+        har.put("time", round(totalMs));
+
+        Map<String, Object> harRequest = new LinkedHashMap<>();
+        harRequest.put("method", request.get("method"));
+        harRequest.put("url", request.get("url"));
+        harRequest.put("httpVersion", response.getOrDefault("protocol", ""));
+        harRequest.put("headers", headers(request.get("headers")));
+        harRequest.put("bodySize", request.get("postData") instanceof String body ? body.length() : 0);
+        har.put("request", harRequest);
+
+        Map<String, Object> harResponse = new LinkedHashMap<>();
+        harResponse.put("status", response.getOrDefault("status", 0));
+        harResponse.put("statusText", response.getOrDefault("statusText", ""));
+        harResponse.put("httpVersion", response.getOrDefault("protocol", ""));
+        harResponse.put("headers", headers(response.get("headers")));
+        harResponse.put("content", content);
+        harResponse.put("bodySize", encodedLength == null ? -1 : encodedLength.longValue());
+        har.put("response", harResponse);
+
+        har.put("timings", timings(response.get("timing"), pending.startedAt, finishedAt, totalMs));
+        har.put("_resourceType", pending.type);
+        if (failure != null) {
+            har.put("_error", failure);
+        }
+        return har;
+    }
+
+    private static List<Map<String, Object>> headers(Object headers) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        if (headers instanceof Map<?, ?> map) {
+            map.forEach((name, value) -> list.add(Map.of("name", String.valueOf(name), "value", String.valueOf(value))));
+        }
+        return list;
+    }
+
+    /** HAR phases from CDP's ResourceTiming, whose offsets are milliseconds after {@code requestTime}. */
+    private static Map<String, Object> timings(Object timing, double startedAt, double finishedAt, double totalMs) {
+        Map<String, Object> har = new LinkedHashMap<>();
+        if (!(timing instanceof Map<?, ?> t) || !(t.get("requestTime") instanceof Number requestTime)) {
+            har.put("send", 0);
+            har.put("wait", round(totalMs));
+            har.put("receive", 0);
+            return har;
+        }
+        double headersEnd = number(t, "receiveHeadersEnd");
+        har.put("blocked", round(Math.max(0, (requestTime.doubleValue() - startedAt) * 1000)));
+        har.put("dns", phase(t, "dnsStart", "dnsEnd"));
+        har.put("connect", phase(t, "connectStart", "connectEnd"));
+        har.put("ssl", phase(t, "sslStart", "sslEnd"));
+        har.put("send", round(Math.max(0, number(t, "sendEnd") - number(t, "sendStart"))));
+        har.put("wait", round(Math.max(0, headersEnd - number(t, "sendEnd"))));
+        har.put("receive", round(Math.max(0, (finishedAt - requestTime.doubleValue()) * 1000 - headersEnd)));
+        return har;
+    }
+
+    private static double phase(Map<?, ?> timing, String start, String end) {
+        double from = number(timing, start);
+        return from < 0 ? -1 : round(number(timing, end) - from);
+    }
+
+    private static double number(Map<?, ?> timing, String key) {
+        return timing.get(key) instanceof Number n ? n.doubleValue() : -1;
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+}
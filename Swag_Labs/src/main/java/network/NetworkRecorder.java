@@ -0,0 +1,291 @@
+package network;
+
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opt-in per-test network trace (-Dnetwork.record=true) built from CDP Network events.
+ *
+ * <p>Each pooled session gets one set of event listeners. While a test runs they write every
+ * finished request as a HAR entry, one JSON object per line, straight into
+ * {@code <output.dir>/network/<test>.har.jsonl.gz} ({@code <test>-2.har.jsonl.gz} and so on for
+ * further data-provider rows and retries of the same test): the first line is the HAR {@code log} header
+ * without entries, every following line one {@code entries[]} element. Only requests still in
+ * flight are held in memory. Response bodies are fetched off the event thread and cut at
+ * {@link Config#networkMaxBodyBytes()}; 0 records headers and timings only.
+ */
+public final class NetworkRecorder {
+
+    private static final Logger LOG = LogManager.getLogger(NetworkRecorder.class);
+    private static final Json JSON = new Json();
+    private static final long BODY_WAIT_MILLIS = 2_000;
+
+    private static final Map<DevTools, Tap> TAPS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    // getResponseBody cannot be sent from the event thread that has to deliver its answer
+    private static final ExecutorService BODIES = Executors.newSingleThreadExecutor(
+            runnable -> Thread.ofPlatform().daemon().name("network-bodies").unstarted(runnable));
+
+    private NetworkRecorder() {
+    }
+
+    public static boolean enabled() {
+        return Config.networkRecord();
+    }
+
+    /** Starts recording {@code driver}'s traffic for the calling thread's test, unless already recording. */
+    public static void begin(WebDriver driver) {
+        if (CURRENT.get() != null) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools hasDevTools)) {
+            LOG.debug("Network recording needs a CDP session; {} has none", driver.getClass().getSimpleName());
+            return;
+        }
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            Tap tap = TAPS.computeIfAbsent(devTools, Tap::new);
+            Path dir = Config.outputDir().resolve("network");
+            Files.createDirectories(dir);
+            Recording recording = new Recording(dir.resolve("recording-" + SEQUENCE.incrementAndGet() + ".part"));
+            tap.target.set(recording);
+            CURRENT.set(recording);
+        } catch (IOException | WebDriverException e) {
+            LOG.warn("Could not start network recording: {}", e.getMessage());
+        }
+    }
+
+    /** Stops the calling thread's recording and files it under {@code test}; returns the trace, or null. */
+    public static Path end(String test) {
+        Recording recording = CURRENT.get();
+        CURRENT.remove();
+        if (recording == null) {
+            return null;
+        }
+        TAPS.values().forEach(tap -> tap.target.compareAndSet(recording, null));
+        recording.awaitBodies();
+        recording.close();
+        try {
+            return file(recording.file, test);
+        } catch (IOException e) {
+            LOG.warn("Could not file network trace for {}: {}", test, e.getMessage());
+            return recording.file;
+        }
+    }
+
+    // Locked so parallel rows of one test cannot both pick the same free name
+    private static synchronized Path file(Path recorded, String test) throws IOException {
+        String base = test.replaceAll("[^A-Za-z0-9._-]", "_");
+        Path trace = recorded.resolveSibling(base + ".har.jsonl.gz");
+        // Data-driven tests and retries finish under the same name
+        for (int i = 2; Files.exists(trace); i++) {
+            trace = recorded.resolveSibling(base + "-" + i + ".har.jsonl.gz");
+        }
+        return Files.move(recorded, trace);
+    }
+
+    /** One compressed trace being written. Entries come from CDP and body threads, hence the locking. */
+    private static final class Recording {
+
+        private final Path file;
+        private final AtomicInteger bodiesPending = new AtomicInteger();
+        private Writer out;
+
+        Recording(Path file) throws IOException {
+            this.file = file;
+            OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024);
+            this.out = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            Map<String, Object> creator = Map.of("name", "Swag Labs NetworkRecorder", "version", "1.0");
+            write(Map.of("log", Map.of("version", "1.2", "creator", creator)));
+        }
+
+        synchronized void write(Map<String, Object> line) {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.write(JSON.toJson(line).replace("\n", ""));
+                out.write('\n');
+            } catch (IOException e) {
+                LOG.warn("Network trace {} is incomplete: {}", file, e.getMessage());
+                close();
+            }
+        }
+
+        synchronized void awaitBodies() {
+            long deadline = System.currentTimeMillis() + BODY_WAIT_MILLIS;
+            while (bodiesPending.get() > 0 && System.currentTimeMillis() < deadline) {
+                try {
+                    wait(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        synchronized void bodyDone() {
+            bodiesPending.decrementAndGet();
+            notifyAll();
+        }
+
+        synchronized void close() {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                LOG.warn("Could not finish network trace {}: {}", file, e.getMessage());
+            }
+            out = null;
+        }
+    }
+
+    /** The CDP listeners of one session, feeding whichever recording is current for it. */
+    private static final class Tap {
+
+        private final DevTools devTools;
+        private final AtomicReference<Recording> target = new AtomicReference<>();
+        private final Map<String, HarEntries.Pending> inFlight = new ConcurrentHashMap<>();
+
+        Tap(DevTools devTools) {
+            this.devTools = devTools;
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.addListener(event("Network.requestWillBeSent"), this::requestWillBeSent);
+            devTools.addListener(event("Network.responseReceived"), params -> {
+                HarEntries.Pending pending = inFlight.get((String) params.get("requestId"));
+                if (pending != null) {
+                    pending.response = map(params.get("response"));
+                }
+            });
+            devTools.addListener(event("Network.loadingFinished"), this::loadingFinished);
+            devTools.addListener(event("Network.loadingFailed"), params -> {
+                HarEntries.Pending pending = inFlight.remove((String) params.get("requestId"));
+                Recording recording = target.get();
+                if (pending != null && recording != null) {
+                    recording.write(HarEntries.entry(pending, number(params.get("timestamp")), null,
+                            String.valueOf(params.get("errorText")), Map.of("size", 0, "mimeType", "")));
+                }
+            });
+        }
+
+        private void requestWillBeSent(Map<String, Object> params) {
+            String id = (String) params.get("requestId");
+            HarEntries.Pending previous = inFlight.remove(id);
+            Recording recording = target.get();
+            if (recording == null) {
+                return;
+            }
+            if (previous != null && params.get("redirectResponse") instanceof Map<?, ?>) {
+                // A redirect reuses the request id; the hop ends here
+                previous.response = map(params.get("redirectResponse"));
+                recording.write(HarEntries.entry(previous, number(params.get("timestamp")),
+                        (Number) previous.response.get("encodedDataLength"), null, Map.of("size", 0, "mimeType", "")));
+            }
+            HarEntries.Pending pending = new HarEntries.Pending();
+            pending.request = map(params.get("request"));
+            pending.startedAt = number(params.get("timestamp"));
+            pending.wallTime = number(params.get("wallTime"));
+            pending.type = String.valueOf(params.get("type"));
+            inFlight.put(id, pending);
+        }
+
+        private void loadingFinished(Map<String, Object> params) {
+            String id = (String) params.get("requestId");
+            HarEntries.Pending pending = inFlight.remove(id);
+            Recording recording = target.get();
+            if (pending == null || recording == null) {
+                return;
+            }
+            double finishedAt = number(params.get("timestamp"));
+            Number encoded = (Number) params.get("encodedDataLength");
+            String mimeType = pending.response == null ? "" : String.valueOf(pending.response.get("mimeType"));
+            long cap = Config.networkMaxBodyBytes();
+            if (cap == 0 || encoded == null || encoded.longValue() > cap) {
+                Map<String, Object> content = new LinkedHashMap<>();
+                content.put("size", -1);
+                content.put("mimeType", mimeType);
+                if (cap > 0) {
+                    content.put("comment", "body not recorded: over the " + cap + " byte cap");
+                }
+                recording.write(HarEntries.entry(pending, finishedAt, encoded, null, content));
+                return;
+            }
+            recording.bodiesPending.incrementAndGet();
+            BODIES.execute(() -> {
+                try {
+                    recording.write(HarEntries.entry(pending, finishedAt, encoded, null, body(id, mimeType, cap)));
+                } finally {
+                    recording.bodyDone();
+                }
+            });
+        }
+
+        private Map<String, Object> body(String requestId, String mimeType, long cap) {
+            Map<String, Object> content = new LinkedHashMap<>();
+            content.put("mimeType", mimeType);
+            try {
+                Map<String, Object> result = devTools.send(new Command<>("Network.getResponseBody",
+                        Map.of("requestId", requestId), Json.MAP_TYPE));
+                String text = String.valueOf(result.get("body"));
+                content.put("size", text.length());
+                if (Boolean.TRUE.equals(result.get("base64Encoded"))) {
+                    content.put("encoding", "base64");
+                }
+                if (text.length() > cap) {
+                    text = text.substring(0, (int) cap);
+                    content.put("_truncated", true);
+                }
+                content.put("text", text);
+            } catch (WebDriverException e) {
+                // Bodies of redirects, preflights and evicted resources are not kept by Chrome
+                content.put("size", -1);
+                content.put("comment", "body not available: " + e.getMessage().lines().findFirst().orElse(""));
+            }
+            return content;
+        }
+
+        private static Event<Map<String, Object>> event(String method) {
+            return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> map(Object value) {
+            return value instanceof Map<?, ?> ? (Map<String, Object>) value : Map.of();
+        }
+
+        private static double number(Object value) {
+            return value instanceof Number n ? n.doubleValue() : 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.example;
+
+import config.Config;
+import load.LoadGenerator;
+import org.testng.xml.XmlSuite;
+import sharding.ResultMerger;
+import sharding.ShardPlanner;
+import sharding.ShardRunner;
+import sharding.TimingDb;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line for duration-aware sharding. Run it with the test classes on the class path
+ * (see the {@code shards} profile in pom.xml):
+ *
+ * <pre>
+ * plan  --shards N [--suite FILE] [--out DIR]   write DIR/shard-&lt;i&gt;.xml and DIR/plan.json
+ * run   --shards N [--suite FILE] [--out DIR]   plan, run every shard in its own JVM, merge the results
+ * merge --out FILE RESULTS...                   merge shard testng-results.xml files into FILE
+ * load  [--out DIR]                             replay the end-to-end journeys as virtual users
+ * </pre>
+ *
+ * Defaults: {@code --suite src/test/resources/testng.xml}, {@code --out target/shards}. Durations
+ * come from the timing database ({@code -Dtiming.db}), which every test run updates. To spread a
+ * suite over machines, run {@code plan} once, give machine i {@code shard-<i>.xml}, and
+ * {@code merge} the results they send back.
+ *
+ * <p>{@code load} takes its users, ramp-up, duration, think time and journeys from the
+ * {@code load.*} system properties (see {@link Config}) and writes {@code load-report.json} to
+ * {@code --out}, by default the output directory. It exits 1 if any request failed.
+ */
+public class Main {
+
+    private static final String USAGE = "usage: Main plan|run --shards N [--suite FILE] [--out DIR]"
+            + " | Main merge --out FILE RESULTS... | Main load [--out DIR]";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            fail(USAGE);
+        }
+        Map<String, String> options = new HashMap<>();
+        List<String> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                if (i + 1 == args.length) {
+                    fail("Missing value for " + args[i]);
+                }
+                options.put(args[i].substring(2), args[++i]);
+            } else {
+                files.add(args[i]);
+            }
+        }
+
+        switch (args[0]) {
+            case "plan" -> plan(suite(options), options);
+            case "run" -> run(suite(options), options);
+            case "merge" -> {
+                if (!options.containsKey("out") || files.isEmpty()) {
+                    fail(USAGE);
+                }
+                report(ResultMerger.merge(files.stream().map(Path::of).toList(), Path.of(options.get("out")),
+                        "Merged shards"));
+            }
+            case "load" -> {
+                LoadGenerator.Report report = LoadGenerator.run(LoadGenerator.Settings.fromConfig(),
+                        Path.of(options.getOrDefault("out", Config.outputDir().toString())));
+                System.out.print(report.text());
+                // The local stand-in's server threads would keep the JVM running
+                System.exit(report.errors() > 0 ? 1 : 0);
+            }
+            default -> fail(USAGE);
+        }
+    }
+
+    private static List<Path> plan(XmlSuite suite, Map<String, String> options) throws Exception {
+        String shards = options.get("shards");
+        if (shards == null) {
+            fail(USAGE);
+        }
+        TimingDb timings = TimingDb.load(Config.timingDb());
+        if (timings.isEmpty()) {
+            System.out.println("No timing history in " + Config.timingDb() + " yet; every test counts the same");
+        }
+        List<ShardPlanner.Shard> plan = ShardPlanner.plan(ShardPlanner.discover(suite, timings), Integer.parseInt(shards));
+        return ShardPlanner.write(suite, plan, outDir(options));
+    }
+
+    private static void run(XmlSuite suite, Map<String, String> options) throws Exception {
+        Path dir = outDir(options);
+        List<Path> results = ShardRunner.run(plan(suite, options), dir);
+        Path merged = dir.resolve("testng-results.xml");
+        ResultMerger.Totals totals = ResultMerger.merge(results, merged, suite.getName());
+        System.out.println("Merged report: " + merged);
+        report(totals);
+    }
+
+    private static void report(ResultMerger.Totals totals) {
+        System.out.printf("Total tests run: %d, Passes: %d, Failures: %d, Skips: %d%n",
+                totals.total(), totals.passed(), totals.failed(), totals.skipped());
+        if (totals.failed() > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static XmlSuite suite(Map<String, String> options) throws Exception {
+        return ShardPlanner.parse(Path.of(options.getOrDefault("suite", "src/test/resources/testng.xml")));
+    }
+
+    private static Path outDir(Map<String, String> options) {
+        return Path.of(options.getOrDefault("out", Config.outputDir().resolve("shards").toString()));
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(2);
+    }
+}
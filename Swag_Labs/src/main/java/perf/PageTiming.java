@@ -0,0 +1,38 @@
+package perf;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What one page transition cost, in milliseconds. {@code transition} is the navigation's load
+ * event for a full page load, or the time from the triggering action to the next painted frame
+ * for an in-app route change. {@code ttfb}, {@code fcp} and {@code lcp} only exist for full loads
+ * and are -1 otherwise (or when the browser does not report them). {@code longTasks} adds up the
+ * main-thread tasks over 50 ms seen during the transition.
+ */
+public record PageTiming(String page, boolean fullLoad, double transition, double ttfb, double fcp,
+                         double lcp, double longTasks) {
+
+    public static final String TRANSITION = "transition";
+    public static final String TTFB = "ttfb";
+    public static final String FCP = "fcp";
+    public static final String LCP = "lcp";
+    public static final String LONG_TASKS = "longTasks";
+
+    /** The metrics that were measured, by the names budgets use. */
+    public Map<String, Double> metrics() {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        metrics.put(TRANSITION, transition);
+        putIfMeasured(metrics, TTFB, ttfb);
+        putIfMeasured(metrics, FCP, fcp);
+        putIfMeasured(metrics, LCP, lcp);
+        putIfMeasured(metrics, LONG_TASKS, longTasks);
+        return metrics;
+    }
+
+    private static void putIfMeasured(Map<String, Double> metrics, String name, double value) {
+        if (value >= 0) {
+            metrics.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Per-page upper bounds from {@code perf-budgets.properties} on the class path, one line per page
+ * and metric: {@code cart.html.transition = 1000}. Pages are the last path segment of the URL;
+ * metrics are the names in {@link PageTiming}. A page or metric without a line is not checked.
+ */
+public final class PerfBudgets {
+
+    public static final String RESOURCE = "perf-budgets.properties";
+
+    private static final Properties BUDGETS = load();
+
+    private PerfBudgets() {
+    }
+
+    /** One line per metric of {@code timing} that is over its budget; empty when within budget. */
+    public static List<String> violations(PageTiming timing) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Double> metric : timing.metrics().entrySet()) {
+            String budget = BUDGETS.getProperty(timing.page() + "." + metric.getKey());
+            if (budget != null && metric.getValue() > Double.parseDouble(budget.trim())) {
+                violations.add(String.format("%s %s took %.0f ms, budget is %s ms",
+                        timing.page(), metric.getKey(), metric.getValue(), budget.trim()));
+            }
+        }
+        return violations;
+    }
+
+    private static Properties load() {
+        Properties budgets = new Properties();
+        try (InputStream in = PerfBudgets.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                budgets.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + RESOURCE, e);
+        }
+        return budgets;
+    }
+}
@@ -0,0 +1,200 @@
+package perf;
+
+import config.Config;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.ITestResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Times the page transitions that test helpers trigger (login, start checkout, the checkout form,
+ * back to products) from Navigation Timing, paint/LCP entries and long tasks.
+ *
+ * <p>{@link #transition} wraps the action that causes the transition: a marker script before it,
+ * one async script after it that waits for the new page to finish loading and paint. When the
+ * action does not leave the page (a rejected login, say) nothing is recorded and nothing is
+ * waited for. Each timing is checked against {@link PerfBudgets}; with {@code -Dperf.budgets=enforce}
+ * (the default) a test that passed but went over budget is failed by the session listener when
+ * it ends, so a slow page never breaks a precondition half way. {@code report} only logs.
+ *
+ * <p>Every timing is written to {@code perf-timings.csv} when the suite finishes.
+ */
+public final class PerfProbe {
+
+    private static final Logger LOG = LogManager.getLogger(PerfProbe.class);
+    private static final long SETTLE_TIMEOUT_MS = 10_000;
+
+    private static final String MARK_SCRIPT =
+            "if (!window.__perfTasks) {"
+            + "  window.__perfTasks = [];"
+            + "  try {"
+            + "    new PerformanceObserver(function (list) {"
+            + "      list.getEntries().forEach(function (e) { window.__perfTasks.push([e.startTime, e.duration]); });"
+            + "    }).observe({type: 'longtask', buffered: true});"
+            + "  } catch (e) {}"
+            + "}"
+            + "window.__perfMark = String(Math.random());"
+            + "return {mark: window.__perfMark, href: location.href, now: performance.now()};";
+
+    private static final String COLLECT_SCRIPT =
+            "var token = arguments[0], href = arguments[1], mark = arguments[2], timeoutMs = arguments[3];"
+            + "var done = arguments[arguments.length - 1];"
+            // A new document has none of the marker script's globals
+            + "var fullLoad = window.__perfMark !== token;"
+            + "if (!fullLoad && location.href === href) { done(null); return; }"
+            + "function buffered(type) {"
+            + "  try { var o = new PerformanceObserver(function () {}); o.observe({type: type, buffered: true});"
+            + "        var records = o.takeRecords(); o.disconnect(); return records; } catch (e) { return []; }"
+            + "}"
+            + "var reported = false;"
+            + "function report() {"
+            + "  if (reported) { return; }"
+            + "  reported = true;"
+            + "  try { done(measure()); } catch (e) { done(null); }"
+            + "}"
+            + "function measure() {"
+            + "  var r = {page: location.pathname.split('/').pop() || 'index.html', fullLoad: fullLoad,"
+            + "           ttfb: -1, fcp: -1, lcp: -1, longTasks: 0};"
+            + "  if (fullLoad) {"
+            + "    var nav = performance.getEntriesByType('navigation')[0];"
+            // Older engines only have the deprecated performance.timing, in epoch milliseconds
+            + "    var legacy = performance.timing;"
+            + "    r.transition = nav ? nav.loadEventEnd"
+            + "        : legacy && legacy.loadEventEnd > 0 ? legacy.loadEventEnd - legacy.navigationStart : performance.now();"
+            + "    if (nav) { r.ttfb = nav.responseStart; }"
+            + "    performance.getEntriesByType('paint').forEach(function (p) {"
+            + "      if (p.name === 'first-contentful-paint') { r.fcp = p.startTime; }"
+            + "    });"
+            + "    buffered('largest-contentful-paint').forEach(function (e) { r.lcp = Math.max(r.lcp, e.startTime); });"
+            + "    buffered('longtask').forEach(function (e) { r.longTasks += e.duration; });"
+            + "  } else {"
+            + "    r.transition = performance.now() - mark;"
+            + "    (window.__perfTasks || []).forEach(function (t) { if (t[0] >= mark) { r.longTasks += t[1]; } });"
+            + "  }"
+            + "  return r;"
+            + "}"
+            + "var started = Date.now();"
+            + "(function settle() {"
+            + "  if (document.readyState !== 'complete' && Date.now() - started < timeoutMs) { setTimeout(settle, 20); return; }"
+            // The next painted frame; a page that is never painted (hidden, headless) gives up after a while
+            + "  requestAnimationFrame(function () { setTimeout(report, 0); });"
+            + "  setTimeout(report, 250);"
+            + "})();";
+
+    private static final Map<String, Object> NOT_MARKED = Map.of("mark", "", "href", "", "now", 0);
+
+    private static final Queue<String> ROWS = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<List<PageTiming>> TIMINGS = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<List<String>> VIOLATIONS = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<Boolean> REPORT_ONLY = new ThreadLocal<>();
+
+    private PerfProbe() {
+    }
+
+    /** Runs {@code action} and times the page it leads to; see the class comment. */
+    public static void transition(WebDriver driver, Runnable action) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Map<?, ?> before;
+        try {
+            before = (Map<?, ?>) js.executeScript(MARK_SCRIPT);
+        } catch (WebDriverException e) {
+            // Not on a page yet (about:blank after a reset, say); the action still has to run
+            before = NOT_MARKED;
+        }
+        action.run();
+        Object result;
+        try {
+            result = collect(js, before);
+        } catch (WebDriverException e) {
+            // The new document replaced the one the script started in; ask the new one
+            LOG.debug("Re-collecting page timing after navigation: {}", e.getMessage());
+            result = collect(js, NOT_MARKED);
+        }
+        if (result instanceof Map<?, ?> map) {
+            record(new PageTiming((String) map.get("page"), Boolean.TRUE.equals(map.get("fullLoad")),
+                    number(map.get("transition")), number(map.get("ttfb")), number(map.get("fcp")),
+                    number(map.get("lcp")), number(map.get("longTasks"))));
+        }
+    }
+
+    /** Budgets stay reported but are not enforced for the rest of the calling thread's test. */
+    public static void reportOnly() {
+        REPORT_ONLY.set(Boolean.TRUE);
+    }
+
+    /** The calling thread's timings since its test started, oldest first. */
+    public static List<PageTiming> timings() {
+        return List.copyOf(TIMINGS.get());
+    }
+
+    /**
+     * Closes the calling thread's test: records its timings for the report and, when budgets are
+     * enforced and the test otherwise passed, fails it with the budget violations.
+     */
+    public static void endTest(ITestResult result) {
+        String test = result.getMethod().getQualifiedName();
+        for (PageTiming timing : TIMINGS.get()) {
+            ROWS.add(String.format(Locale.ROOT, "%s,%s,%s,%.1f,%.1f,%.1f,%.1f,%.1f", test, timing.page(),
+                    timing.fullLoad(), timing.transition(), timing.ttfb(), timing.fcp(), timing.lcp(), timing.longTasks()));
+        }
+        List<String> violations = List.copyOf(VIOLATIONS.get());
+        boolean enforce = Config.PERF_BUDGETS_ENFORCE.equals(Config.perfBudgets()) && REPORT_ONLY.get() == null;
+        TIMINGS.remove();
+        VIOLATIONS.remove();
+        REPORT_ONLY.remove();
+        if (enforce && !violations.isEmpty() && result.getStatus() == ITestResult.SUCCESS) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError("Performance budget exceeded: " + String.join("; ", violations)));
+        }
+    }
+
+    /** Writes {@code perf-timings.csv} with every recorded transition. */
+    public static void report(Path dir) {
+        if (ROWS.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            try (BufferedWriter out = Files.newBufferedWriter(dir.resolve("perf-timings.csv"))) {
+                out.write("test,page,fullLoad,transitionMs,ttfbMs,fcpMs,lcpMs,longTasksMs\n");
+                for (String row : ROWS) {
+                    out.write(row);
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not write page timings: {}", e.getMessage());
+        }
+    }
+
+    private static Object collect(JavascriptExecutor js, Map<?, ?> before) {
+        return js.executeAsyncScript(COLLECT_SCRIPT, before.get("mark"), before.get("href"), before.get("now"),
+                SETTLE_TIMEOUT_MS);
+    }
+
+    private static void record(PageTiming timing) {
+        TIMINGS.get().add(timing);
+        List<String> violations = PerfBudgets.violations(timing);
+        if (!violations.isEmpty()) {
+            LOG.warn("Over budget: {}", String.join("; ", violations));
+            VIOLATIONS.get().addAll(violations);
+        }
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number n ? n.doubleValue() : -1;
+    }
+}
@@ -0,0 +1,179 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process stand-in for https://www.saucedemo.com/, used when the suite runs with
+ * {@code -Dbase.url=local}. It serves a replica of the login, inventory, item detail, cart and
+ * checkout pages from {@code src/main/resources/swaglabs} with the ids and classes the tests
+ * locate, and, like the real site, keeps all application state in the browser.
+ *
+ * <p>The only server-side behaviour is the performance_glitch_user emulation: page requests
+ * carrying that user's session cookie are delayed by {@code -Dlocal.glitchDelayMs}.
+ */
+public final class SwagLabsServer {
+
+    private static final Logger LOG = LogManager.getLogger(SwagLabsServer.class);
+    private static final String RESOURCE_ROOT = "/swaglabs/";
+    private static final String GLITCH_USER = "performance_glitch_user";
+    private static final Map<String, String> PAGES = Map.of(
+            "/", "login",
+            "/index.html", "login",
+            "/inventory.html", "inventory",
+            "/inventory-item.html", "inventory-item",
+            "/cart.html", "cart",
+            "/checkout-step-one.html", "checkout-step-one",
+            "/checkout-step-two.html", "checkout-step-two",
+            "/checkout-complete.html", "checkout-complete");
+    private static final Set<String> STATIC_TYPES = Set.of(".js", ".css", ".svg");
+
+    private static volatile SwagLabsServer shared;
+
+    private final HttpServer http;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, byte[]> resourceCache = new ConcurrentHashMap<>();
+    private final long glitchDelayMillis;
+
+    public SwagLabsServer(int port, long glitchDelayMillis) {
+        this.glitchDelayMillis = glitchDelayMillis;
+        try {
+            http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the local Swag Labs server", e);
+        }
+        http.setExecutor(executor);
+        http.createContext("/", this::handle);
+    }
+
+    /** The server shared by the whole JVM, started on a free port on first use. */
+    public static SwagLabsServer shared() {
+        SwagLabsServer server = shared;
+        if (server == null) {
+            synchronized (SwagLabsServer.class) {
+                server = shared;
+                if (server == null) {
+                    server = new SwagLabsServer(0, Long.getLong("local.glitchDelayMs", 2000));
+                    server.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "swaglabs-server-stop"));
+                    shared = server;
+                }
+            }
+        }
+        return server;
+    }
+
+    public void start() {
+        http.start();
+        LOG.info("Local Swag Labs running at {}", baseUrl());
+    }
+
+    public void stop() {
+        http.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + http.getAddress().getPort() + "/";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "text/plain", "Method not allowed".getBytes(StandardCharsets.UTF_8), false);
+                return;
+            }
+            String path = URI.create(exchange.getRequestURI().getPath()).normalize().getPath();
+            String page = PAGES.get(path);
+            if (page != null) {
+                if (GLITCH_USER.equals(sessionUser(exchange))) {
+                    sleep(glitchDelayMillis);
+                }
+                byte[] shell = resource("shell.html");
+                byte[] body = new String(shell, StandardCharsets.UTF_8)
+                        .replace("{{page}}", page)
+                        .getBytes(StandardCharsets.UTF_8);
+                send(exchange, 200, "text/html; charset=utf-8", body, false);
+                return;
+            }
+            if (path.startsWith("/static/") && STATIC_TYPES.stream().anyMatch(path::endsWith)) {
+                byte[] body = resource(path.substring(1));
+                if (body != null) {
+                    send(exchange, 200, contentType(path), body, true);
+                    return;
+                }
+            }
+            send(exchange, 404, "text/plain", "Not found".getBytes(StandardCharsets.UTF_8), false);
+        }
+    }
+
+    private byte[] resource(String name) {
+        return resourceCache.computeIfAbsent(name, key -> {
+            try (InputStream in = SwagLabsServer.class.getResourceAsStream(RESOURCE_ROOT + key)) {
+                return in == null ? null : in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body,
+                             boolean cacheable) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", cacheable ? "max-age=3600" : "no-cache");
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, head ? -1 : body.length);
+        if (!head) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String sessionUser(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals("session-username")) {
+                    return pair[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".js")) {
+            return "text/javascript; charset=utf-8";
+        }
+        if (path.endsWith(".css")) {
+            return "text/css; charset=utf-8";
+        }
+        return "image/svg+xml";
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package sharding;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Combines the {@code testng-results.xml} of every shard into one report for CI, as if a single
+ * suite had run: the shards' {@code <test>} elements go under one {@code <suite>} (renamed with
+ * their shard number so they stay distinct), the suite spans the earliest start to the latest
+ * finish, and the pass/fail/skip totals are summed.
+ */
+public final class ResultMerger {
+
+    private static final String[] COUNTS = {"ignored", "total", "passed", "failed", "skipped"};
+
+    private ResultMerger() {
+    }
+
+    /** Merged totals, also written to the report's root element. */
+    public record Totals(int total, int passed, int failed, int skipped) {
+    }
+
+    /** Merges {@code shardResults} (in shard order) into {@code target} under {@code suiteName}. */
+    public static Totals merge(List<Path> shardResults, Path target, String suiteName) throws IOException {
+        try {
+            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            Document merged = builder.newDocument();
+            Element root = merged.createElement("testng-results");
+            merged.appendChild(root);
+            root.appendChild(merged.createElement("reporter-output"));
+            Element suite = merged.createElement("suite");
+            suite.setAttribute("name", suiteName);
+            Element groups = merged.createElement("groups");
+            suite.appendChild(groups);
+            root.appendChild(suite);
+
+            int[] counts = new int[COUNTS.length];
+            String startedAt = null;
+            String finishedAt = null;
+            long durationMs = 0;
+            for (int shard = 0; shard < shardResults.size(); shard++) {
+                Document result = builder.parse(shardResults.get(shard).toFile());
+                Element shardRoot = result.getDocumentElement();
+                for (int i = 0; i < COUNTS.length; i++) {
+                    counts[i] += intAttribute(shardRoot, COUNTS[i]);
+                }
+                for (Element shardSuite : children(shardRoot, "suite")) {
+                    // TestNG writes UTC timestamps in a sortable format
+                    startedAt = min(startedAt, shardSuite.getAttribute("started-at"));
+                    finishedAt = max(finishedAt, shardSuite.getAttribute("finished-at"));
+                    // Shards run side by side, so the suite takes as long as the slowest one
+                    durationMs = Math.max(durationMs, Long.parseLong(shardSuite.getAttribute("duration-ms")));
+                    for (Element group : children(firstChild(shardSuite, "groups"), "group")) {
+                        groups.appendChild(merged.importNode(group, true));
+                    }
+                    for (Element test : children(shardSuite, "test")) {
+                        Element copy = (Element) merged.importNode(test, true);
+                        copy.setAttribute("name", test.getAttribute("name") + " (shard " + (shard + 1) + ")");
+                        suite.appendChild(copy);
+                    }
+                }
+            }
+            for (int i = 0; i < COUNTS.length; i++) {
+                root.setAttribute(COUNTS[i], String.valueOf(counts[i]));
+            }
+            if (startedAt != null) {
+                suite.setAttribute("started-at", startedAt);
+                suite.setAttribute("finished-at", finishedAt);
+            }
+            suite.setAttribute("duration-ms", String.valueOf(durationMs));
+
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+            return new Totals(counts[1], counts[2], counts[3], counts[4]);
+        } catch (ParserConfigurationException | SAXException | TransformerException e) {
+            throw new IOException("Could not merge shard results into " + target, e);
+        }
+    }
+
+    private static int intAttribute(Element element, String name) {
+        String value = element.getAttribute(name);
+        return value.isEmpty() ? 0 : Integer.parseInt(value);
+    }
+
+    private static Element firstChild(Element parent, String name) {
+        List<Element> found = children(parent, name);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private static List<Element> children(Element parent, String name) {
+        if (parent == null) {
+            return List.of();
+        }
+        NodeList nodes = parent.getChildNodes();
+        return IntStream.range(0, nodes.getLength())
+                .mapToObj(nodes::item)
+                .filter(node -> node.getNodeType() == Node.ELEMENT_NODE && node.getNodeName().equals(name))
+                .map(Element.class::cast)
+                .toList();
+    }
+
+    private static String min(String current, String candidate) {
+        return current == null || candidate.compareTo(current) < 0 ? candidate : current;
+    }
+
+    private static String max(String current, String candidate) {
+        return current == null || candidate.compareTo(current) > 0 ? candidate : current;
+    }
+}
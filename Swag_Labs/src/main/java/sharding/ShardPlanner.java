@@ -0,0 +1,226 @@
+package sharding;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Splits a TestNG suite into shards that should take the same wall-clock time, using the durations
+ * in a {@link TimingDb} rather than class names.
+ *
+ * <p>Planning is longest-processing-time-first: tests are taken from slowest to fastest and each
+ * goes to the shard with the least estimated work so far. Every shard is written as its own suite
+ * XML with the original suite's settings; within a shard, classes and methods keep the order the
+ * original suite ran them in.
+ */
+public final class ShardPlanner {
+
+    private static final Logger LOG = LogManager.getLogger(ShardPlanner.class);
+
+    private ShardPlanner() {
+    }
+
+    /** A test method of the suite, with its position in the original run order. */
+    public record PlannedTest(int order, String testName, String className, String method, double millis) {
+
+        public String id() {
+            return className + "." + method;
+        }
+    }
+
+    /** The tests one worker runs and how long they should take together. */
+    public record Shard(int index, List<PlannedTest> tests, double millis) {
+    }
+
+    /** Lists the enabled @Test methods of every class in {@code suite}, estimated from {@code timings}. */
+    public static List<PlannedTest> discover(XmlSuite suite, TimingDb timings) {
+        List<PlannedTest> tests = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                Class<?> type = load(xmlClass.getName());
+                Test classLevel = type.getAnnotation(Test.class);
+                // TestNG runs a class's methods by name unless told otherwise; keep that order
+                Method[] methods = type.getMethods();
+                Arrays.sort(methods, Comparator.comparing(Method::getName));
+                for (Method method : methods) {
+                    if (isTest(method, classLevel) && isIncluded(xmlClass, method.getName())) {
+                        String id = type.getName() + "." + method.getName();
+                        tests.add(new PlannedTest(tests.size(), test.getName(), type.getName(),
+                                method.getName(), timings.estimateMillis(id)));
+                    }
+                }
+            }
+        }
+        return tests;
+    }
+
+    /** Longest-processing-time-first assignment of {@code tests} to {@code shardCount} shards. */
+    public static List<Shard> plan(List<PlannedTest> tests, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1 but was " + shardCount);
+        }
+        List<List<PlannedTest>> assigned = new ArrayList<>();
+        double[] load = new double[shardCount];
+        // Least loaded first; ties go to the lower index so the plan is deterministic
+        PriorityQueue<Integer> shards = new PriorityQueue<>(
+                Comparator.<Integer>comparingDouble(i -> load[i]).thenComparing(i -> i));
+        for (int i = 0; i < shardCount; i++) {
+            assigned.add(new ArrayList<>());
+            shards.add(i);
+        }
+        List<PlannedTest> slowestFirst = new ArrayList<>(tests);
+        slowestFirst.sort(Comparator.comparingDouble(PlannedTest::millis).reversed()
+                .thenComparing(PlannedTest::id));
+        for (PlannedTest test : slowestFirst) {
+            int target = shards.poll();
+            assigned.get(target).add(test);
+            load[target] += test.millis();
+            shards.add(target);
+        }
+
+        List<Shard> plan = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            List<PlannedTest> inRunOrder = new ArrayList<>(assigned.get(i));
+            inRunOrder.sort(Comparator.comparingInt(PlannedTest::order));
+            plan.add(new Shard(i, List.copyOf(inRunOrder), load[i]));
+        }
+        return plan;
+    }
+
+    /**
+     * Writes {@code shard-<i>.xml} for every shard plus {@code plan.json} (tests and estimate per
+     * shard) to {@code dir}, and returns the suite files.
+     */
+    public static List<Path> write(XmlSuite suite, List<Shard> plan, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files = new ArrayList<>();
+        List<Map<String, Object>> summary = new ArrayList<>();
+        for (Shard shard : plan) {
+            Path file = dir.resolve("shard-" + shard.index() + ".xml");
+            Files.writeString(file, toSuite(suite, shard, plan.size()).toXml());
+            files.add(file);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("shard", shard.index());
+            row.put("estimatedMs", Math.round(shard.millis()));
+            row.put("tests", shard.tests().stream().map(PlannedTest::id).toList());
+            summary.add(row);
+            LOG.info("Shard {}: {} tests, ~{} s", shard.index(), shard.tests().size(),
+                    Math.round(shard.millis() / 1000));
+        }
+        Files.writeString(dir.resolve("plan.json"), new Json().toJson(summary));
+        return files;
+    }
+
+    public static XmlSuite parse(Path suiteFile) throws IOException {
+        List<XmlSuite> suites = new Parser(suiteFile.toString()).parseToList();
+        if (suites.size() != 1) {
+            throw new IllegalArgumentException("Expected one suite in " + suiteFile + " but found " + suites.size());
+        }
+        return suites.get(0);
+    }
+
+    private static XmlSuite toSuite(XmlSuite original, Shard shard, int shardCount) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(original.getName() + " (shard " + (shard.index() + 1) + " of " + shardCount + ")");
+        // Everything but packages and tests, which the shard lists explicitly
+        suite.setParallel(original.getParallel());
+        suite.setThreadCount(original.getThreadCount());
+        suite.setDataProviderThreadCount(original.getDataProviderThreadCount());
+        suite.setShareThreadPoolForDataProviders(original.isShareThreadPoolForDataProviders());
+        suite.setPreserveOrder(original.getPreserveOrder());
+        suite.setGroupByInstances(original.getGroupByInstances());
+        suite.setSkipFailedInvocationCounts(original.skipFailedInvocationCounts());
+        suite.setAllowReturnValues(original.getAllowReturnValues());
+        suite.setConfigFailurePolicy(original.getConfigFailurePolicy());
+        suite.setTimeOut(original.getTimeOut());
+        suite.setVerbose(original.getVerbose());
+        suite.setParameters(original.getParameters());
+        suite.setListeners(original.getListeners());
+        suite.setGroups(original.getGroups());
+        suite.setMethodSelectors(original.getMethodSelectors());
+        suite.setObjectFactoryClass(original.getObjectFactoryClass());
+        suite.setParentModule(original.getParentModule());
+        suite.setGuiceStage(original.getGuiceStage());
+
+        Map<String, XmlTest> originals = new LinkedHashMap<>();
+        original.getTests().forEach(test -> originals.putIfAbsent(test.getName(), test));
+        Map<String, XmlTest> tests = new LinkedHashMap<>();
+        Map<String, XmlClass> classes = new LinkedHashMap<>();
+        for (PlannedTest planned : shard.tests()) {
+            XmlTest test = tests.computeIfAbsent(planned.testName(),
+                    name -> toTest(originals.get(name), suite));
+            XmlClass xmlClass = classes.computeIfAbsent(planned.testName() + "/" + planned.className(), key -> {
+                XmlClass created = new XmlClass(planned.className(), false);
+                test.getXmlClasses().add(created);
+                return created;
+            });
+            xmlClass.getIncludedMethods().add(new XmlInclude(planned.method()));
+        }
+        return suite;
+    }
+
+    /** An empty {@code <test>} in {@code suite} with the settings of {@code original}. */
+    private static XmlTest toTest(XmlTest original, XmlSuite suite) {
+        XmlTest test = new XmlTest(suite);
+        test.setName(original.getName());
+        test.setParallel(original.getParallel());
+        test.setThreadCount(original.getThreadCount());
+        test.setPreserveOrder(original.getPreserveOrder());
+        test.setGroupByInstances(original.getGroupByInstances());
+        test.setSkipFailedInvocationCounts(original.skipFailedInvocationCounts());
+        test.setParameters(original.getLocalParameters());
+        test.setGroups(original.getXmlGroups());
+        if (original.getTimeOut() != null) {
+            test.setTimeOut(Long.parseLong(original.getTimeOut()));
+        }
+        return test;
+    }
+
+    private static boolean isTest(Method method, Test classLevel) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+            return false;
+        }
+        Test test = method.getAnnotation(Test.class);
+        if (test != null) {
+            return test.enabled();
+        }
+        // A class-level @Test makes every public method a test, unless it is configuration
+        return classLevel != null && classLevel.enabled() && method.getAnnotations().length == 0;
+    }
+
+    private static boolean isIncluded(XmlClass xmlClass, String method) {
+        List<XmlInclude> included = xmlClass.getIncludedMethods();
+        if (!included.isEmpty() && included.stream().noneMatch(include -> include.getName().equals(method))) {
+            return false;
+        }
+        return !xmlClass.getExcludedMethods().contains(method);
+    }
+
+    private static Class<?> load(String className) {
+        try {
+            return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Test class " + className + " is not on the class path", e);
+        }
+    }
+}
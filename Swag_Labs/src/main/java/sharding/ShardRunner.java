@@ -0,0 +1,64 @@
+package sharding;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs each shard's suite in its own JVM on this machine and waits for all of them. Workers get
+ * this JVM's class path and every {@code -D} option it was started with (base URL, browser
+ * profile, timing database, ...), plus their own {@code -Doutput.dir} so the framework's reports
+ * do not collide. TestNG output and console logs go to {@code <dir>/shard-<i>/}.
+ */
+public final class ShardRunner {
+
+    private static final Logger LOG = LogManager.getLogger(ShardRunner.class);
+
+    private ShardRunner() {
+    }
+
+    /** Starts one worker per suite file and returns each worker's {@code testng-results.xml}. */
+    public static List<Path> run(List<Path> suiteFiles, Path dir) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> forwarded = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(argument -> argument.startsWith("-D") && !argument.startsWith("-Doutput.dir="))
+                .toList();
+
+        long start = System.nanoTime();
+        List<Process> workers = new ArrayList<>();
+        List<Path> results = new ArrayList<>();
+        for (int i = 0; i < suiteFiles.size(); i++) {
+            Path workDir = dir.resolve("shard-" + i);
+            Files.createDirectories(workDir);
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(forwarded);
+            command.add("-Doutput.dir=" + workDir);
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), "org.testng.TestNG",
+                    "-d", workDir.resolve("testng").toString(), suiteFiles.get(i).toString()));
+            Path log = workDir.resolve("console.log");
+            Process worker = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+            int shard = i;
+            // Logged as each shard exits, so the spread between the first and the last shows how well the plan balanced
+            worker.onExit().thenAccept(exited -> LOG.info("Shard {} finished after {} s with exit code {}",
+                    shard, (System.nanoTime() - start) / 1_000_000_000, exited.exitValue()));
+            workers.add(worker);
+            results.add(workDir.resolve("testng").resolve("testng-results.xml"));
+            LOG.info("Started shard {} (log: {})", i, log);
+        }
+
+        for (int i = 0; i < workers.size(); i++) {
+            workers.get(i).waitFor();
+            if (!Files.isRegularFile(results.get(i))) {
+                throw new IOException("Shard " + i + " wrote no results, see " + dir.resolve("shard-" + i).resolve("console.log"));
+            }
+        }
+        return results;
+    }
+}
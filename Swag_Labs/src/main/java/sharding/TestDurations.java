@@ -0,0 +1,56 @@
+package sharding;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures each test in the current run for the {@link TimingDb}. A test's clock starts once its
+ * worker thread holds a browser session, which usually happens in its @BeforeMethod, and stops
+ * when the test method returns: setup such as logging in is part of what a shard pays for it,
+ * waiting for a free session is not. A data-driven test is charged the wall time from its first
+ * invocation's start to its last one's end, so rows that run in parallel are not added up.
+ */
+public final class TestDurations {
+
+    private static final Map<String, Span> SPANS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Long> STARTED = new ThreadLocal<>();
+
+    private TestDurations() {
+    }
+
+    /** Wall-clock extent of a test's invocations, in {@link System#nanoTime()} units. */
+    private record Span(long start, long end) {
+
+        Span union(Span other) {
+            return new Span(Math.min(start, other.start), Math.max(end, other.end));
+        }
+    }
+
+    /** Starts the calling thread's clock unless a test is already being timed on it. */
+    public static void begin() {
+        if (STARTED.get() == null) {
+            STARTED.set(System.nanoTime());
+        }
+    }
+
+    /** Stops the clock and, when {@code record} is set, charges the time to {@code test}. */
+    public static void end(String test, boolean record) {
+        Long started = STARTED.get();
+        STARTED.remove();
+        if (started != null && record) {
+            SPANS.merge(test, new Span(started, System.nanoTime()), Span::union);
+        }
+    }
+
+    /** Folds the measurements taken since the last save into the database at {@code file}. */
+    public static void save(Path file) {
+        Map<String, Long> taken = new HashMap<>();
+        for (String test : SPANS.keySet()) {
+            Span span = SPANS.remove(test);
+            taken.put(test, (span.end() - span.start()) / 1_000_000);
+        }
+        TimingDb.update(file, taken);
+    }
+}
@@ -0,0 +1,112 @@
+package sharding;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.JsonException;
+import store.JsonStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Historical duration of every test, keyed by qualified method name ({@code tests.CartTests.testX}).
+ * Each run folds its measurements in as an exponentially weighted mean, so one slow run moves an
+ * estimate without rewriting it.
+ *
+ * <p>The file is plain JSON ({@code {"tests.CartTests.testX": {"ms": 812.5, "runs": 4}}}) kept
+ * in a {@link JsonStore}, so shard JVMs that finish at the same time do not lose each other's
+ * samples. Point several machines at one copy
+ * (or cache it between CI runs) with {@code -Dtiming.db}.
+ */
+public final class TimingDb {
+
+    private static final Logger LOG = LogManager.getLogger(TimingDb.class);
+
+    /** Weight of the newest run in an estimate. */
+    static final double NEWEST_WEIGHT = 0.3;
+
+    private final Map<String, Entry> entries;
+
+    private TimingDb(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /** One test's estimate and how many runs it is based on. */
+    public record Entry(double millis, int runs) {
+    }
+
+    /** Reads {@code file}; a missing or unreadable file gives an empty database. */
+    public static TimingDb load(Path file) {
+        try {
+            return fromJson(JsonStore.read(file));
+        } catch (IOException | JsonException e) {
+            LOG.warn("Ignoring unreadable timing database {}: {}", file, e.getMessage());
+            return new TimingDb(new TreeMap<>());
+        }
+    }
+
+    /**
+     * Folds one run's durations into the database at {@code file}, creating it if needed. Safe to
+     * call from several JVMs at once.
+     */
+    public static void update(Path file, Map<String, Long> millisByTest) {
+        if (millisByTest.isEmpty()) {
+            return;
+        }
+        try {
+            JsonStore.update(file, saved -> {
+                TimingDb db = fromJson(saved);
+                millisByTest.forEach(db::record);
+                return db.toJson();
+            });
+            LOG.info("Recorded {} test durations in {}", millisByTest.size(), file);
+        } catch (IOException e) {
+            LOG.warn("Could not update timing database {}: {}", file, e.getMessage());
+        }
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public Entry get(String test) {
+        return entries.get(test);
+    }
+
+    /**
+     * Expected duration of {@code test}. A test with no history is assumed to take as long as the
+     * average known test (or one second on an empty database), so it is spread like the others.
+     */
+    public double estimateMillis(String test) {
+        Entry entry = entries.get(test);
+        if (entry != null) {
+            return entry.millis();
+        }
+        return entries.values().stream().mapToDouble(Entry::millis).average().orElse(1000);
+    }
+
+    void record(String test, long millis) {
+        Entry old = entries.get(test);
+        double estimate = old == null ? millis : old.millis() * (1 - NEWEST_WEIGHT) + millis * NEWEST_WEIGHT;
+        entries.put(test, new Entry(Math.round(estimate * 10) / 10.0, old == null ? 1 : old.runs() + 1));
+    }
+
+    private static TimingDb fromJson(Map<String, Object> saved) {
+        Map<String, Entry> entries = new TreeMap<>();
+        saved.forEach((test, value) -> {
+            if (value instanceof Map<?, ?> row && row.get("ms") instanceof Number ms) {
+                int runs = row.get("runs") instanceof Number n ? n.intValue() : 1;
+                entries.put(test, new Entry(ms.doubleValue(), runs));
+            }
+        });
+        return new TimingDb(entries);
+    }
+
+    private Map<String, Object> toJson() {
+        Map<String, Object> saved = new TreeMap<>();
+        entries.forEach((test, entry) -> saved.put(test, Map.of("ms", entry.millis(), "runs", entry.runs())));
+        return saved;
+    }
+}
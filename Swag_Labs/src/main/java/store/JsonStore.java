@@ -0,0 +1,71 @@
+package store;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * A JSON object in a file that several JVMs read and update, such as the timing and flake
+ * databases. Every update happens under an exclusive lock on a sidecar {@code .lock} file and
+ * the new content is moved into place atomically, so shard JVMs that finish at the same time do
+ * not lose each other's changes and a reader never sees a half-written file.
+ */
+public final class JsonStore {
+
+    private static final Logger LOG = LogManager.getLogger(JsonStore.class);
+    private static final Json JSON = new Json();
+
+    private JsonStore() {
+    }
+
+    /** The object stored in {@code file}; a missing file gives an empty map. */
+    public static Map<String, Object> read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return new TreeMap<>();
+        }
+        return JSON.toType(Files.readString(file), Json.MAP_TYPE);
+    }
+
+    /**
+     * Replaces the object in {@code file} with {@code change} applied to it, creating the file if
+     * needed. An unreadable file is treated as empty and overwritten.
+     */
+    public static void update(Path file, UnaryOperator<Map<String, Object>> change) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path lockFile = dir.resolve(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                Map<String, Object> saved;
+                try {
+                    saved = read(file);
+                } catch (JsonException e) {
+                    LOG.warn("Replacing unreadable {}: {}", file, e.getMessage());
+                    saved = new TreeMap<>();
+                }
+                write(dir, file, change.apply(saved));
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private static void write(Path dir, Path file, Map<String, Object> content) throws IOException {
+        Path partial = Files.createTempFile(dir, file.getFileName().toString(), ".part");
+        Files.writeString(partial, JSON.toJson(content));
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
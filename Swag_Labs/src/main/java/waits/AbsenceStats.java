@@ -0,0 +1,40 @@
+package waits;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how much waiting {@link DomState} avoided. Every check that settles on "absent" would
+ * previously have waited out the caller's full visibility timeout; the difference is time saved.
+ */
+public final class AbsenceStats {
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong absentVerdicts = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    void record(boolean absent, long elapsedNanos, long timeoutNanos) {
+        checks.incrementAndGet();
+        if (absent) {
+            absentVerdicts.incrementAndGet();
+            savedNanos.addAndGet(Math.max(0, timeoutNanos - elapsedNanos));
+        }
+    }
+
+    public long checks() {
+        return checks.get();
+    }
+
+    public long absentVerdicts() {
+        return absentVerdicts.get();
+    }
+
+    public long timeSavedMillis() {
+        return savedNanos.get() / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("checks=%d, absent=%d, timeSaved=%d ms",
+                checks(), absentVerdicts(), timeSavedMillis());
+    }
+}
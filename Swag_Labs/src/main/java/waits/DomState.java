@@ -0,0 +1,107 @@
+package waits;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Presence, absence and count checks that settle as soon as the page stops changing instead of
+ * waiting out a visibility timeout.
+ *
+ * <p>Each check runs one async script that watches the document with a MutationObserver and
+ * answers once no mutation has happened for {@link #QUIET_PERIOD} (or the caller's timeout
+ * expires), so "the cart badge is gone" costs a few hundred milliseconds rather than the ten
+ * seconds {@code visibilityOfElementLocated} needs to give up.
+ */
+public final class DomState {
+
+    private static final Logger LOG = LogManager.getLogger(DomState.class);
+    public static final Duration QUIET_PERIOD = Duration.ofMillis(100);
+    private static final AbsenceStats STATS = new AbsenceStats();
+
+    private static final String SETTLE_SCRIPT = Locators.FIND_FUNCTION
+            + "var using = arguments[0], value = arguments[1], quietMs = arguments[2], maxMs = arguments[3];"
+            + "var done = arguments[arguments.length - 1];"
+            + "var finished = false, quietTimer, maxTimer, observer;"
+            + "function report() {"
+            + "  finished = true; observer.disconnect(); clearTimeout(quietTimer); clearTimeout(maxTimer);"
+            + "  var shown = find(using, value).filter(visible);"
+            + "  done({count: shown.length, text: shown.length ? shown[0].textContent.trim() : null});"
+            + "}"
+            + "function onQuiet() {"
+            + "  if (finished) { return; }"
+            + "  if (document.readyState !== 'complete') { quietTimer = setTimeout(onQuiet, quietMs); return; }"
+            + "  report();"
+            + "}"
+            + "observer = new MutationObserver(function () {"
+            + "  if (!finished) { clearTimeout(quietTimer); quietTimer = setTimeout(onQuiet, quietMs); }"
+            + "});"
+            + "observer.observe(document, {subtree: true, childList: true, attributes: true, characterData: true});"
+            + "quietTimer = setTimeout(onQuiet, quietMs);"
+            + "maxTimer = setTimeout(function () { if (!finished) { report(); } }, maxMs);";
+
+    private DomState() {
+    }
+
+    /** Number of displayed elements matching {@code locator} once the DOM has settled. */
+    public static int settledCount(WebDriver driver, By locator, Duration timeout) {
+        return settle(driver, locator, timeout).count;
+    }
+
+    /**
+     * Text of the first displayed element matching {@code locator} once the DOM has settled, or
+     * {@code ifAbsent} when there is none. Drop-in for the "wait for visibility, fall back on
+     * timeout" helpers such as getCartBadgeCount().
+     */
+    public static String settledText(WebDriver driver, By locator, String ifAbsent, Duration timeout) {
+        Snapshot snapshot = settle(driver, locator, timeout);
+        return snapshot.count == 0 ? ifAbsent : snapshot.text;
+    }
+
+    public static void assertAbsent(WebDriver driver, By locator, Duration timeout, String message) {
+        assertCount(driver, locator, 0, timeout, message);
+    }
+
+    public static void assertCount(WebDriver driver, By locator, int expected, Duration timeout, String message) {
+        int actual = settledCount(driver, locator, timeout);
+        if (actual != expected) {
+            throw new AssertionError(message + " expected [" + expected + "] but found [" + actual + "]");
+        }
+    }
+
+    /** Checks made in this JVM and the waiting they saved; the session listener logs it per suite. */
+    public static AbsenceStats stats() {
+        return STATS;
+    }
+
+    private static Snapshot settle(WebDriver driver, By locator, Duration timeout) {
+        Object[] target = Locators.toScriptArgs(locator);
+        long start = System.nanoTime();
+        Snapshot snapshot;
+        try {
+            snapshot = run(driver, target, timeout);
+        } catch (WebDriverException e) {
+            // The page navigated away while we were watching it; settle on the new one
+            LOG.debug("Re-settling after navigation: {}", e.getMessage());
+            snapshot = run(driver, target, timeout);
+        }
+        STATS.record(snapshot.count == 0, System.nanoTime() - start, timeout.toNanos());
+        return snapshot;
+    }
+
+    private static Snapshot run(WebDriver driver, Object[] target, Duration timeout) {
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(SETTLE_SCRIPT,
+                target[0], target[1], QUIET_PERIOD.toMillis(), timeout.toMillis());
+        Map<?, ?> map = (Map<?, ?>) result;
+        return new Snapshot(((Number) map.get("count")).intValue(), (String) map.get("text"));
+    }
+
+    private record Snapshot(int count, String text) {
+    }
+}
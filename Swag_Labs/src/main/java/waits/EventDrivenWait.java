@@ -0,0 +1,41 @@
+package waits;
+
+import metrics.CommandMetrics;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Drop-in {@link WebDriverWait} that re-checks its condition as soon as the page changes instead
+ * of on a fixed 500 ms tick. {@code until(ExpectedConditions...)}, {@code ignoring},
+ * {@code withMessage} and friends behave exactly as before; only the sleep between attempts is
+ * replaced (see {@link MutationSleeper}). Drivers that cannot run scripts poll as usual.
+ */
+public class EventDrivenWait extends WebDriverWait {
+
+    public EventDrivenWait(WebDriver driver, Duration timeout) {
+        this(driver, timeout, Duration.ofMillis(DEFAULT_SLEEP_TIMEOUT));
+    }
+
+    /**
+     * @param interval upper bound on the time between checks when nothing observable happens in
+     *                 the page (e.g. a condition that depends on layout rather than the DOM)
+     */
+    public EventDrivenWait(WebDriver driver, Duration timeout, Duration interval) {
+        super(driver, timeout, interval, Clock.systemDefaultZone(), new MutationSleeper(driver));
+    }
+
+    /** Same as {@link WebDriverWait#until}, timed as {@code wait.until} in {@link CommandMetrics}. */
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        long start = System.nanoTime();
+        try {
+            return super.until(isTrue);
+        } finally {
+            CommandMetrics.record("wait.until", System.nanoTime() - start);
+        }
+    }
+}
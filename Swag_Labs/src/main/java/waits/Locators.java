@@ -0,0 +1,51 @@
+package waits;
+
+import org.openqa.selenium.By;
+
+import java.util.Set;
+
+/**
+ * Translates a {@link By} into something page scripts can evaluate. Selenium's own locators
+ * describe themselves through {@link By.Remotable}; everything except link text maps onto a
+ * DOM query.
+ */
+final class Locators {
+
+    private Locators() {
+    }
+
+    private static final Set<String> STRATEGIES =
+            Set.of("css selector", "xpath", "id", "name", "class name", "tag name");
+
+    /** {@code [strategy, value]} using the W3C / legacy strategy names Selenium reports. */
+    static Object[] toScriptArgs(By locator) {
+        if (!(locator instanceof By.Remotable remotable)) {
+            throw new IllegalArgumentException("Locator cannot be evaluated in the page: " + locator);
+        }
+        By.Remotable.Parameters parameters = remotable.getRemoteParameters();
+        String using = parameters.using();
+        if (!STRATEGIES.contains(using)) {
+            throw new IllegalArgumentException("Locator cannot be evaluated in the page: " + locator);
+        }
+        return new Object[] {using, String.valueOf(parameters.value())};
+    }
+
+    /** Page-side function {@code find(using, value)} returning the matching elements as an array. */
+    static final String FIND_FUNCTION =
+            "function find(using, value) {"
+            + "  var slice = function (list) { return Array.prototype.slice.call(list); };"
+            + "  if (using === 'css selector') { return slice(document.querySelectorAll(value)); }"
+            + "  if (using === 'id') { var el = document.getElementById(value); return el ? [el] : []; }"
+            + "  if (using === 'name') { return slice(document.getElementsByName(value)); }"
+            + "  if (using === 'class name') { return slice(document.getElementsByClassName(value)); }"
+            + "  if (using === 'tag name') { return slice(document.getElementsByTagName(value)); }"
+            + "  var snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "  var nodes = [];"
+            + "  for (var i = 0; i < snapshot.snapshotLength; i++) { nodes.push(snapshot.snapshotItem(i)); }"
+            + "  return nodes;"
+            + "}"
+            + "function visible(el) {"
+            + "  var style = window.getComputedStyle(el);"
+            + "  return style.visibility !== 'hidden' && style.display !== 'none' && el.getClientRects().length > 0;"
+            + "}";
+}
@@ -0,0 +1,75 @@
+package waits;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.Sleeper;
+
+import java.time.Duration;
+
+/**
+ * {@link Sleeper} for {@link EventDrivenWait}: instead of sleeping out the polling interval it
+ * parks inside the page until the DOM mutates, a load/hashchange/popstate/transition/animation
+ * event fires, or the interval runs out, whichever comes first.
+ *
+ * <p>The page keeps a change counter tagged with a per-document id. Each thread remembers the last
+ * value it saw, so a change that lands while the condition is being evaluated wakes the next
+ * sleep immediately rather than being missed. A new document (navigation) also wakes it.
+ */
+final class MutationSleeper implements Sleeper {
+
+    private static final Logger LOG = LogManager.getLogger(MutationSleeper.class);
+
+    /** How long to poll when the page cannot be scripted, e.g. while a navigation is in flight. */
+    private static final Duration FALLBACK_POLL = Duration.ofMillis(100);
+
+    private static final String AWAIT_CHANGE_SCRIPT =
+            "var seen = arguments[0], capMs = arguments[1], done = arguments[arguments.length - 1];"
+            + "var state = window.__waitsChanges;"
+            + "function token() { return state.id + ':' + state.n; }"
+            + "if (!state) {"
+            + "  state = window.__waitsChanges = {id: Math.random().toString(36).slice(2), n: 0, waiters: []};"
+            + "  var bump = function () {"
+            + "    state.n++;"
+            + "    var waiters = state.waiters; state.waiters = [];"
+            + "    for (var i = 0; i < waiters.length; i++) { setTimeout(waiters[i], 0); }"
+            + "  };"
+            + "  new MutationObserver(bump).observe(document,"
+            + "      {subtree: true, childList: true, attributes: true, characterData: true});"
+            + "  ['load', 'hashchange', 'popstate', 'transitionend', 'animationend'].forEach(function (type) {"
+            + "    window.addEventListener(type, bump, true);"
+            + "  });"
+            + "  done(token()); return;"
+            + "}"
+            + "if (token() !== seen) { done(token()); return; }"
+            + "var finished = false, timer;"
+            + "function finish() { if (!finished) { finished = true; clearTimeout(timer); done(token()); } }"
+            + "timer = setTimeout(finish, capMs);"
+            + "state.waiters.push(finish);";
+
+    private final WebDriver driver;
+    private final ThreadLocal<String> lastSeen = new ThreadLocal<>();
+
+    MutationSleeper(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    public void sleep(Duration interval) throws InterruptedException {
+        if (!(driver instanceof JavascriptExecutor js)) {
+            Sleeper.SYSTEM_SLEEPER.sleep(interval);
+            return;
+        }
+        try {
+            Object token = js.executeAsyncScript(AWAIT_CHANGE_SCRIPT, lastSeen.get(), interval.toMillis());
+            lastSeen.set(String.valueOf(token));
+        } catch (WebDriverException e) {
+            // Usually a navigation tore down the document mid-script; poll briefly until it is back
+            LOG.debug("Falling back to polling: {}", e.getMessage());
+            lastSeen.remove();
+            Sleeper.SYSTEM_SLEEPER.sleep(interval.compareTo(FALLBACK_POLL) < 0 ? interval : FALLBACK_POLL);
+        }
+    }
+}
@@ -0,0 +1,599 @@
+/*
+ * Replica of the Swag Labs front end served by server.SwagLabsServer.
+ *
+ * Mirrors https://www.saucedemo.com/ closely enough for the UI suite: the same ids, classes and
+ * data-test attributes, the session-username cookie, the cart kept in localStorage under
+ * "cart-contents", and the demo accounts' quirks. Plain ES5 so that lightweight, non-Chrome
+ * clients can run it too.
+ */
+(function () {
+    'use strict';
+
+    var PASSWORD = 'secret_sauce';
+    var USERS = ['standard_user', 'locked_out_user', 'problem_user', 'performance_glitch_user',
+        'error_user', 'visual_user'];
+    var SESSION_COOKIE = 'session-username';
+    var CART_KEY = 'cart-contents';
+    var TAX_RATE = 0.08;
+
+    var PRODUCTS = [
+        {id: 4, name: 'Sauce Labs Backpack', price: 29.99,
+            desc: 'carry.allTheThings() with the sleek, streamlined Sly Pack that melds uncompromising style with unequaled laptop and tablet protection.'},
+        {id: 0, name: 'Sauce Labs Bike Light', price: 9.99,
+            desc: 'A red light isn\'t the desired state in testing but it sure helps when riding your bike at night. Water-resistant with 3 lighting modes, 1 AAA battery included.'},
+        {id: 1, name: 'Sauce Labs Bolt T-Shirt', price: 15.99,
+            desc: 'Get your testing superhero on with the Sauce Labs bolt T-shirt. From American Apparel, 100% ringspun combed cotton, heather gray with red bolt.'},
+        {id: 5, name: 'Sauce Labs Fleece Jacket', price: 49.99,
+            desc: 'It\'s not every day that you come across a midweight quarter-zip fleece jacket capable of handling everything from a relaxing day outdoors to a busy day at the office.'},
+        {id: 2, name: 'Sauce Labs Onesie', price: 7.99,
+            desc: 'Rib snap infant onesie for the junior automation engineer in development. Reinforced 3-snap bottom closure, two-needle hemmed sleeved and bottom won\'t unravel.'},
+        {id: 3, name: 'Test.allTheThings() T-Shirt (Red)', price: 15.99,
+            desc: 'This classic Sauce Labs t-shirt is perfect to wear when cozying up to your keyboard to automate a few tests. Super-soft and comfy ringspun combed cotton.'}
+    ];
+    // Items whose buttons misbehave for problem_user and error_user, as on the real site
+    var BROKEN_ITEMS = [1, 5, 3];
+
+    var SORTS = {
+        az: {label: 'Name (A to Z)', compare: function (a, b) { return a.name < b.name ? -1 : a.name > b.name ? 1 : 0; }},
+        za: {label: 'Name (Z to A)', compare: function (a, b) { return a.name < b.name ? 1 : a.name > b.name ? -1 : 0; }},
+        lohi: {label: 'Price (low to high)', compare: function (a, b) { return a.price - b.price; }},
+        hilo: {label: 'Price (high to low)', compare: function (a, b) { return b.price - a.price; }}
+    };
+
+    var page = document.body.getAttribute('data-page');
+    var root = document.getElementById('root');
+
+    // ---- state -------------------------------------------------------------------------------
+
+    function currentUser() {
+        var cookies = document.cookie ? document.cookie.split(';') : [];
+        for (var i = 0; i < cookies.length; i++) {
+            var pair = cookies[i].replace(/^\s+/, '').split('=');
+            if (pair[0] === SESSION_COOKIE) {
+                return decodeURIComponent(pair.slice(1).join('='));
+            }
+        }
+        return null;
+    }
+
+    function setUser(user) {
+        if (user) {
+            document.cookie = SESSION_COOKIE + '=' + encodeURIComponent(user) + '; path=/';
+        } else {
+            document.cookie = SESSION_COOKIE + '=; path=/; expires=Thu, 01 Jan 1970 00:00:00 GMT';
+        }
+    }
+
+    function cart() {
+        try {
+            var ids = JSON.parse(window.localStorage.getItem(CART_KEY) || '[]');
+            return ids instanceof Array ? ids : [];
+        } catch (e) {
+            return [];
+        }
+    }
+
+    function saveCart(ids) {
+        if (ids.length) {
+            window.localStorage.setItem(CART_KEY, JSON.stringify(ids));
+        } else {
+            window.localStorage.removeItem(CART_KEY);
+        }
+    }
+
+    function inCart(id) {
+        return cart().indexOf(id) >= 0;
+    }
+
+    function addToCart(id) {
+        var ids = cart();
+        if (ids.indexOf(id) < 0) {
+            ids.push(id);
+            saveCart(ids);
+        }
+    }
+
+    function removeFromCart(id) {
+        var ids = cart();
+        var index = ids.indexOf(id);
+        if (index >= 0) {
+            ids.splice(index, 1);
+            saveCart(ids);
+        }
+    }
+
+    function product(id) {
+        for (var i = 0; i < PRODUCTS.length; i++) {
+            if (PRODUCTS[i].id === id) {
+                return PRODUCTS[i];
+            }
+        }
+        return null;
+    }
+
+    function isBroken(id) {
+        var user = currentUser();
+        return (user === 'problem_user' || user === 'error_user') && BROKEN_ITEMS.indexOf(id) >= 0;
+    }
+
+    // ---- DOM helpers -------------------------------------------------------------------------
+
+    function el(tag, attrs, children) {
+        var node = document.createElement(tag);
+        if (attrs) {
+            for (var key in attrs) {
+                if (attrs.hasOwnProperty(key)) {
+                    if (key === 'text') {
+                        node.appendChild(document.createTextNode(attrs[key]));
+                    } else if (key === 'onclick') {
+                        node.onclick = attrs[key];
+                    } else {
+                        node.setAttribute(key, attrs[key]);
+                    }
+                }
+            }
+        }
+        for (var i = 0; children && i < children.length; i++) {
+            if (children[i]) {
+                node.appendChild(children[i]);
+            }
+        }
+        return node;
+    }
+
+    function slug(name) {
+        return name.toLowerCase().replace(/\s+/g, '-');
+    }
+
+    function money(value) {
+        return '$' + value.toFixed(2);
+    }
+
+    function imageFor(item) {
+        return currentUser() === 'problem_user' ? 'static/img/sl-404.svg' : 'static/img/product.svg';
+    }
+
+    function go(url) {
+        window.location.href = url;
+    }
+
+    function fail(message) {
+        // error_user surfaces genuine uncaught errors, just like the real demo account
+        console.error(message);
+        throw new Error(message);
+    }
+
+    // ---- shared chrome -----------------------------------------------------------------------
+
+    function renderBadge() {
+        var link = document.querySelector('.shopping_cart_link');
+        if (!link) {
+            return;
+        }
+        var badge = link.querySelector('.shopping_cart_badge');
+        var count = cart().length;
+        if (count === 0 && badge) {
+            link.removeChild(badge);
+        } else if (count > 0) {
+            if (!badge) {
+                badge = el('span', {'class': 'shopping_cart_badge', 'data-test': 'shopping-cart-badge'});
+                link.appendChild(badge);
+            }
+            badge.textContent = String(count);
+        }
+    }
+
+    function setMenuOpen(open) {
+        var wrap = document.querySelector('.bm-menu-wrap');
+        wrap.style.display = open ? 'block' : 'none';
+        wrap.setAttribute('aria-hidden', open ? 'false' : 'true');
+    }
+
+    function header(title, secondary) {
+        var menu = el('div', {'class': 'bm-menu-wrap', 'aria-hidden': 'true', 'style': 'display: none'}, [
+            el('nav', {'class': 'bm-item-list'}, [
+                el('a', {id: 'inventory_sidebar_link', 'class': 'bm-item menu-item', href: '#', text: 'All Items',
+                    onclick: function (e) { e.preventDefault(); go('inventory.html'); }}),
+                el('a', {id: 'about_sidebar_link', 'class': 'bm-item menu-item', href: 'https://saucelabs.com/',
+                    text: 'About'}),
+                el('a', {id: 'logout_sidebar_link', 'class': 'bm-item menu-item', href: '#', text: 'Logout',
+                    onclick: function (e) { e.preventDefault(); setUser(null); go('./'); }}),
+                el('a', {id: 'reset_sidebar_link', 'class': 'bm-item menu-item', href: '#', text: 'Reset App State',
+                    onclick: function (e) {
+                        e.preventDefault();
+                        saveCart([]);
+                        renderBadge();
+                        refreshInventoryButtons();
+                    }})
+            ]),
+            el('div', {'class': 'bm-cross-button'}, [
+                el('button', {id: 'react-burger-cross-btn', type: 'button', text: 'Close Menu',
+                    onclick: function () { setMenuOpen(false); }})
+            ])
+        ]);
+        return el('div', {id: 'header_container', 'class': 'header_container'}, [
+            el('div', {'class': 'primary_header'}, [
+                el('div', {id: 'menu_button_container'}, [
+                    el('div', {'class': 'bm-burger-button'}, [
+                        el('button', {id: 'react-burger-menu-btn', type: 'button', text: 'Open Menu',
+                            onclick: function () { setMenuOpen(true); }})
+                    ]),
+                    menu
+                ]),
+                el('div', {'class': 'header_label'}, [el('div', {'class': 'app_logo', text: 'Swag Labs'})]),
+                el('div', {id: 'shopping_cart_container', 'class': 'shopping_cart_container'}, [
+                    el('a', {'class': 'shopping_cart_link', 'data-test': 'shopping-cart-link', href: 'cart.html'})
+                ])
+            ]),
+            el('div', {'class': 'header_secondary_container'}, [
+                el('span', {'class': 'title', 'data-test': 'title', text: title}),
+                secondary
+            ])
+        ]);
+    }
+
+    function layout(title, secondary, content) {
+        root.appendChild(el('div', {id: 'page_wrapper', 'class': 'page_wrapper'}, [
+            el('div', {id: 'contents_wrapper'}, [header(title, secondary), content]),
+            el('footer', {'class': 'footer'}, [
+                el('div', {'class': 'footer_copy', text: '© Swag Labs replica. Local test stand-in.'})
+            ])
+        ]));
+        renderBadge();
+    }
+
+    // ---- pages -------------------------------------------------------------------------------
+
+    function loginPage() {
+        var denied = /[?&]denied=([^&]*)/.exec(window.location.search);
+        var error = el('div', {'class': 'error-message-container'});
+        var username = el('input', {id: 'user-name', name: 'user-name', 'class': 'input_error form_input',
+            placeholder: 'Username', type: 'text', 'data-test': 'username', autocorrect: 'off', autocapitalize: 'none'});
+        var password = el('input', {id: 'password', name: 'password', 'class': 'input_error form_input',
+            placeholder: 'Password', type: 'password', 'data-test': 'password', autocorrect: 'off', autocapitalize: 'none'});
+
+        function showError(message) {
+            error.innerHTML = '';
+            error.className = 'error-message-container error';
+            error.appendChild(el('h3', {'data-test': 'error', text: message}, [
+                el('button', {'class': 'error-button', 'data-test': 'error-button', type: 'button', 'aria-label': 'Close',
+                    onclick: function () { error.innerHTML = ''; error.className = 'error-message-container'; }})
+            ]));
+        }
+
+        var form = el('form', {}, [
+            el('div', {'class': 'form_group'}, [username]),
+            el('div', {'class': 'form_group'}, [password]),
+            error,
+            el('input', {type: 'submit', 'class': 'submit-button btn_action', 'data-test': 'login-button',
+                id: 'login-button', name: 'login-button', value: 'Login'})
+        ]);
+        form.onsubmit = function (e) {
+            e.preventDefault();
+            var user = username.value;
+            var pass = password.value;
+            if (!user) {
+                showError('Epic sadface: Username is required');
+            } else if (!pass) {
+                showError('Epic sadface: Password is required');
+            } else if (USERS.indexOf(user) < 0 || pass !== PASSWORD) {
+                showError('Epic sadface: Username and password do not match any user in this service');
+            } else if (user === 'locked_out_user') {
+                showError('Epic sadface: Sorry, this user has been locked out.');
+            } else {
+                setUser(user);
+                go('inventory.html');
+            }
+        };
+
+        root.appendChild(el('div', {'class': 'login_container'}, [
+            el('div', {'class': 'login_logo', text: 'Swag Labs'}),
+            el('div', {'class': 'login_wrapper'}, [
+                el('div', {'class': 'login_wrapper-inner'}, [
+                    el('div', {id: 'login_button_container', 'class': 'form_column'}, [
+                        el('div', {'class': 'login-box'}, [form])
+                    ])
+                ])
+            ]),
+            el('div', {'class': 'login_credentials_wrap'}, [
+                el('div', {id: 'login_credentials', 'class': 'login_credentials', 'data-test': 'login-credentials',
+                    text: 'Accepted usernames are: ' + USERS.join(', ')}),
+                el('div', {'class': 'login_password', 'data-test': 'login-password',
+                    text: 'Password for all users: ' + PASSWORD})
+            ])
+        ]));
+        if (denied) {
+            showError('Epic sadface: You can only access \'' + decodeURIComponent(denied[1])
+                + '\' when you are logged in.');
+        }
+    }
+
+    function cartButton(item, context) {
+        var added = inCart(item.id);
+        var base = context === 'cart' ? 'btn btn_secondary btn_small cart_button'
+            : 'btn ' + (added ? 'btn_secondary' : 'btn_primary') + ' btn_small btn_inventory';
+        var id = context === 'detail' ? (added ? 'remove' : 'add-to-cart')
+            : (added ? 'remove-' : 'add-to-cart-') + slug(item.name);
+        var button = el('button', {'class': base, id: id, name: id, 'data-test': id,
+            text: added ? 'Remove' : 'Add to cart'});
+        button.onclick = function () {
+            if (isBroken(item.id)) {
+                if (currentUser() === 'error_user') {
+                    fail('Failed to ' + (inCart(item.id) ? 'remove' : 'add') + ' item ' + item.id + ' to cart.');
+                }
+                return;
+            }
+            if (inCart(item.id)) {
+                removeFromCart(item.id);
+            } else {
+                addToCart(item.id);
+            }
+            renderBadge();
+            if (context === 'cart') {
+                var row = button;
+                while (row && row.className !== 'cart_item') {
+                    row = row.parentNode;
+                }
+                if (row) {
+                    row.parentNode.removeChild(row);
+                }
+            } else {
+                button.parentNode.replaceChild(cartButton(item, context), button);
+            }
+        };
+        return button;
+    }
+
+    function refreshInventoryButtons() {
+        if (page !== 'inventory') {
+            return;
+        }
+        renderInventoryList(document.querySelector('.product_sort_container').value);
+    }
+
+    function renderInventoryList(sortKey) {
+        var list = document.querySelector('.inventory_list');
+        list.innerHTML = '';
+        var items = PRODUCTS.slice().sort(SORTS[sortKey].compare);
+        for (var i = 0; i < items.length; i++) {
+            list.appendChild(inventoryItem(items[i]));
+        }
+    }
+
+    function inventoryItem(item) {
+        var detailUrl = 'inventory-item.html?id=' + item.id;
+        function openDetail(e) {
+            e.preventDefault();
+            go(detailUrl);
+        }
+        return el('div', {'class': 'inventory_item', 'data-test': 'inventory-item'}, [
+            el('div', {'class': 'inventory_item_img'}, [
+                el('a', {href: '#', id: 'item_' + item.id + '_img_link', onclick: openDetail}, [
+                    el('img', {alt: item.name, 'class': 'inventory_item_img', src: imageFor(item)})
+                ])
+            ]),
+            el('div', {'class': 'inventory_item_description', 'data-test': 'inventory-item-description'}, [
+                el('div', {'class': 'inventory_item_label'}, [
+                    el('a', {href: '#', id: 'item_' + item.id + '_title_link', onclick: openDetail}, [
+                        el('div', {'class': 'inventory_item_name', 'data-test': 'inventory-item-name', text: item.name})
+                    ]),
+                    el('div', {'class': 'inventory_item_desc', 'data-test': 'inventory-item-desc', text: item.desc})
+                ]),
+                el('div', {'class': 'pricebar'}, [
+                    el('div', {'class': 'inventory_item_price', 'data-test': 'inventory-item-price',
+                        text: money(item.price)}),
+                    cartButton(item, 'inventory')
+                ])
+            ])
+        ]);
+    }
+
+    function inventoryPage() {
+        var active = el('span', {'class': 'active_option', 'data-test': 'active-option', text: SORTS.az.label});
+        var select = el('select', {'class': 'product_sort_container', 'data-test': 'product-sort-container'});
+        for (var key in SORTS) {
+            if (SORTS.hasOwnProperty(key)) {
+                select.appendChild(el('option', {value: key, text: SORTS[key].label}));
+            }
+        }
+        select.onchange = function () {
+            if (currentUser() === 'problem_user' || currentUser() === 'error_user') {
+                if (currentUser() === 'error_user') {
+                    fail('Sorting is broken! This error has been reported to Backtrace.');
+                }
+                select.value = 'az';
+                return;
+            }
+            active.textContent = SORTS[select.value].label;
+            renderInventoryList(select.value);
+        };
+        layout('Products', el('div', {'class': 'right_component'}, [
+            el('span', {'class': 'select_container'}, [active, select])
+        ]), el('div', {id: 'inventory_container', 'class': 'inventory_container'}, [
+            el('div', {'class': 'inventory_list', 'data-test': 'inventory-list'})
+        ]));
+        renderInventoryList('az');
+    }
+
+    function inventoryItemPage() {
+        var match = /[?&]id=(\d+)/.exec(window.location.search);
+        var item = match ? product(parseInt(match[1], 10)) : null;
+        var back = el('button', {id: 'back-to-products', 'class': 'btn btn_secondary back btn_large inventory_details_back_button',
+            'data-test': 'back-to-products', text: 'Back to products', onclick: function () { go('inventory.html'); }});
+        var details;
+        if (!item) {
+            details = el('div', {'class': 'inventory_details_name large_size', text: 'ITEM NOT FOUND'});
+        } else {
+            details = el('div', {'class': 'inventory_details_container'}, [
+                el('div', {'class': 'inventory_details_img_container'}, [
+                    el('img', {alt: item.name, 'class': 'inventory_details_img', src: imageFor(item)})
+                ]),
+                el('div', {'class': 'inventory_details_desc_container'}, [
+                    el('div', {'class': 'inventory_details_name large_size', 'data-test': 'inventory-item-name', text: item.name}),
+                    el('div', {'class': 'inventory_details_desc large_size', 'data-test': 'inventory-item-desc', text: item.desc}),
+                    el('div', {'class': 'inventory_details_price', 'data-test': 'inventory-item-price', text: money(item.price)}),
+                    cartButton(item, 'detail')
+                ])
+            ]);
+        }
+        layout('', el('div', {'class': 'left_component'}, [back]),
+            el('div', {id: 'inventory_item_container', 'class': 'inventory_item_container'}, [
+                el('div', {'class': 'inventory_details', 'data-test': 'inventory-container'}, [details])
+            ]));
+    }
+
+    function cartItem(item, removable) {
+        return el('div', {'class': 'cart_item', 'data-test': 'inventory-item'}, [
+            el('div', {'class': 'cart_quantity', 'data-test': 'item-quantity', text: '1'}),
+            el('div', {'class': 'cart_item_label'}, [
+                el('a', {href: 'inventory-item.html?id=' + item.id, id: 'item_' + item.id + '_title_link'}, [
+                    el('div', {'class': 'inventory_item_name', 'data-test': 'inventory-item-name', text: item.name})
+                ]),
+                el('div', {'class': 'inventory_item_desc', 'data-test': 'inventory-item-desc', text: item.desc}),
+                el('div', {'class': 'item_pricebar'}, [
+                    el('div', {'class': 'inventory_item_price', 'data-test': 'inventory-item-price', text: money(item.price)}),
+                    removable ? cartButton(item, 'cart') : null
+                ])
+            ])
+        ]);
+    }
+
+    function cartList(removable) {
+        var list = el('div', {'class': 'cart_list', 'data-test': 'cart-list'}, [
+            el('div', {'class': 'cart_quantity_label', text: 'QTY'}),
+            el('div', {'class': 'cart_desc_label', text: 'Description'})
+        ]);
+        var ids = cart();
+        for (var i = 0; i < ids.length; i++) {
+            var item = product(ids[i]);
+            if (item) {
+                list.appendChild(cartItem(item, removable));
+            }
+        }
+        return list;
+    }
+
+    function cartPage() {
+        layout('Your Cart', null, el('div', {id: 'cart_contents_container', 'class': 'cart_contents_container'}, [
+            el('div', {}, [
+                cartList(true),
+                el('div', {'class': 'cart_footer'}, [
+                    el('button', {id: 'continue-shopping', 'class': 'btn btn_secondary back btn_medium',
+                        'data-test': 'continue-shopping', text: 'Continue Shopping',
+                        onclick: function () { go('inventory.html'); }}),
+                    el('button', {id: 'checkout', 'class': 'btn btn_action btn_medium checkout_button',
+                        'data-test': 'checkout', text: 'Checkout',
+                        onclick: function () { go('checkout-step-one.html'); }})
+                ])
+            ])
+        ]));
+    }
+
+    function checkoutStepOnePage() {
+        var error = el('div', {'class': 'error-message-container'});
+        function field(id, placeholder) {
+            return el('div', {'class': 'form_group'}, [
+                el('input', {id: id, name: id, 'class': 'input_error form_input', placeholder: placeholder,
+                    type: 'text', 'data-test': id, autocorrect: 'off', autocapitalize: 'none'})
+            ]);
+        }
+        var form = el('form', {}, [
+            el('div', {'class': 'checkout_info'}, [
+                field('first-name', 'First Name'),
+                field('last-name', 'Last Name'),
+                field('postal-code', 'Zip/Postal Code'),
+                error
+            ]),
+            el('div', {'class': 'checkout_buttons'}, [
+                el('button', {id: 'cancel', 'class': 'btn btn_secondary back btn_medium cart_cancel_link',
+                    'data-test': 'cancel', type: 'button', text: 'Cancel', onclick: function () { go('cart.html'); }}),
+                el('input', {type: 'submit', id: 'continue', name: 'continue', 'data-test': 'continue',
+                    'class': 'submit-button btn btn_primary cart_button btn_action', value: 'Continue'})
+            ])
+        ]);
+        form.onsubmit = function (e) {
+            e.preventDefault();
+            var missing = !document.getElementById('first-name').value ? 'First Name'
+                : !document.getElementById('last-name').value ? 'Last Name'
+                : !document.getElementById('postal-code').value ? 'Postal Code' : null;
+            if (missing) {
+                error.innerHTML = '';
+                error.className = 'error-message-container error';
+                error.appendChild(el('h3', {'data-test': 'error', text: 'Error: ' + missing + ' is required'}));
+                return;
+            }
+            go('checkout-step-two.html');
+        };
+        layout('Checkout: Your Information', null,
+            el('div', {id: 'checkout_info_container', 'class': 'checkout_info_container'}, [
+                el('div', {'class': 'checkout_info_wrapper'}, [form])
+            ]));
+    }
+
+    function checkoutStepTwoPage() {
+        var subtotal = 0;
+        var ids = cart();
+        for (var i = 0; i < ids.length; i++) {
+            subtotal += product(ids[i]).price;
+        }
+        var tax = Math.round(subtotal * TAX_RATE * 100) / 100;
+        layout('Checkout: Overview', null, el('div', {id: 'checkout_summary_container', 'class': 'checkout_summary_container'}, [
+            el('div', {}, [
+                cartList(false),
+                el('div', {'class': 'summary_info'}, [
+                    el('div', {'class': 'summary_info_label', text: 'Payment Information:'}),
+                    el('div', {'class': 'summary_value_label', text: 'SauceCard #31337'}),
+                    el('div', {'class': 'summary_info_label', text: 'Shipping Information:'}),
+                    el('div', {'class': 'summary_value_label', text: 'Free Pony Express Delivery!'}),
+                    el('div', {'class': 'summary_info_label', text: 'Price Total'}),
+                    el('div', {'class': 'summary_subtotal_label', 'data-test': 'subtotal-label',
+                        text: 'Item total: ' + money(subtotal)}),
+                    el('div', {'class': 'summary_tax_label', 'data-test': 'tax-label', text: 'Tax: ' + money(tax)}),
+                    el('div', {'class': 'summary_total_label', 'data-test': 'total-label',
+                        text: 'Total: ' + money(subtotal + tax)}),
+                    el('div', {'class': 'cart_footer'}, [
+                        el('button', {id: 'cancel', 'class': 'btn btn_secondary back btn_medium cart_cancel_link',
+                            'data-test': 'cancel', text: 'Cancel', onclick: function () { go('inventory.html'); }}),
+                        el('button', {id: 'finish', 'class': 'btn btn_action btn_medium cart_button',
+                            'data-test': 'finish', text: 'Finish', onclick: function () {
+                                if (currentUser() === 'error_user') {
+                                    fail('Cannot read properties of undefined (reading \'finish\')');
+                                }
+                                saveCart([]);
+                                go('checkout-complete.html');
+                            }})
+                    ])
+                ])
+            ])
+        ]));
+    }
+
+    function checkoutCompletePage() {
+        layout('Checkout: Complete!', null, el('div', {id: 'checkout_complete_container', 'class': 'checkout_complete_container'}, [
+            el('img', {alt: 'Pony Express', 'class': 'pony_express', src: 'static/img/product.svg'}),
+            el('h2', {'class': 'complete-header', 'data-test': 'complete-header', text: 'Thank you for your order!'}),
+            el('div', {'class': 'complete-text', 'data-test': 'complete-text',
+                text: 'Your order has been dispatched, and will arrive just as fast as the pony can get there!'}),
+            el('button', {id: 'back-to-products', 'class': 'btn btn_primary btn_small', 'data-test': 'back-to-products',
+                text: 'Back Home', onclick: function () { go('inventory.html'); }})
+        ]));
+    }
+
+    // ---- routing -----------------------------------------------------------------------------
+
+    var pages = {
+        'login': loginPage,
+        'inventory': inventoryPage,
+        'inventory-item': inventoryItemPage,
+        'cart': cartPage,
+        'checkout-step-one': checkoutStepOnePage,
+        'checkout-step-two': checkoutStepTwoPage,
+        'checkout-complete': checkoutCompletePage
+    };
+
+    if (page !== 'login' && !currentUser()) {
+        window.location.replace('./?denied=' + encodeURIComponent(window.location.pathname));
+    } else {
+        pages[page]();
+    }
+}());
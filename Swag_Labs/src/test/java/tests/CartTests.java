@@ -1,27 +1,24 @@
 package tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import auth.AuthService;
+import breaker.Preconditions;
+import drivers.DriverRegistry;
+import listeners.SessionListener;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.*;
+import waits.DomState;
 
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
+@Listeners(SessionListener.class)
 public class CartTests {
-    private WebDriver driver;
-    private WebDriverWait wait;
+    private final WebDriver driver = DriverRegistry.driver();
+    private final WebDriverWait wait = DriverRegistry.driverWait(TIMEOUT);
 
     // Locators
-    private final By usernameInput       = By.id("user-name");
-    private final By passwordInput       = By.id("password");
-    private final By loginButton         = By.id("login-button");
     private final By inventoryList       = By.className("inventory_list");
     private final By cartLink            = By.className("shopping_cart_link");
     private final By cartList            = By.className("cart_list");
@@ -36,55 +33,22 @@ public class CartTests {
     private final By checkoutFirstName   = By.id("first-name");
 
     // Constants
-    private static final String BASE_URL       = "https://www.saucedemo.com/";
-    private static final String STANDARD_USER  = "standard_user";
-    private static final String SECRET_SAUCE   = "secret_sauce";
     private static final Duration TIMEOUT      = Duration.ofSeconds(10);
 
-    @BeforeClass
-    public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
-    }
-
     @BeforeMethod
     public void setUp() {
-        ChromeOptions options = new ChromeOptions();
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("credentials_enable_service", false);
-        prefs.put("profile.password_manager_enabled", false);
-        options.setExperimentalOption("prefs", prefs);
-        options.setExperimentalOption("excludeSwitches",
-                Arrays.asList("enable-automation", "enable-logging"));
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-notifications", "--incognito");
-
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.get(BASE_URL);
-        wait = new WebDriverWait(driver, TIMEOUT);
-
         // Precondition: login and wait for inventory page
-        login(STANDARD_USER, SECRET_SAUCE);
-        wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
-    }
-
-    @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
+        Preconditions.check(Preconditions.LOGIN, () -> {
+            AuthService.login(driver);
+            wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
+        });
     }
 
     // Helper methods
-    private void login(String user, String pass) {
-        driver.findElement(usernameInput).sendKeys(user);
-        driver.findElement(passwordInput).sendKeys(pass);
-        driver.findElement(loginButton).click();
-    }
-
     private void addToCart(String productName) {
         By locator = By.xpath(String.format(addToCartXPath, productName));
-        wait.until(ExpectedConditions.elementToBeClickable(locator)).click();
+        Preconditions.check(Preconditions.ADD_TO_CART,
+                () -> wait.until(ExpectedConditions.elementToBeClickable(locator)).click());
     }
 
     private void removeFromCart() {
@@ -92,13 +56,7 @@ public class CartTests {
     }
 
     private String getCartBadgeCount() {
-        try {
-            return wait.until(ExpectedConditions
-                            .visibilityOfElementLocated(cartBadge))
-                    .getText();
-        } catch (TimeoutException | NoSuchElementException e) {
-            return "0";
-        }
+        return DomState.settledText(driver, cartBadge, "0", TIMEOUT);
     }
 
     private boolean isElementDisplayed(By locator) {
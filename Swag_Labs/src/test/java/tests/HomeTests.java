@@ -1,29 +1,30 @@
 package tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import auth.AuthService;
+import breaker.Preconditions;
+import dom.ItemRow;
+import dom.ItemRows;
+import drivers.DriverRegistry;
+import listeners.SessionListener;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.*;
+import waits.DomState;
 
+import java.math.BigDecimal;
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 
+@Listeners(SessionListener.class)
 public class HomeTests {
-    private WebDriver driver;
-    private WebDriverWait wait;
+    private final WebDriver driver = DriverRegistry.driver();
+    private final WebDriverWait wait = DriverRegistry.driverWait(TIMEOUT);
 
     // Locators
-    private final By usernameInput    = By.id("user-name");
-    private final By passwordInput    = By.id("password");
-    private final By loginButton      = By.id("login-button");
     private final By inventoryList    = By.className("inventory_list");
     private final By sortContainer    = By.className("product_sort_container");
     private final By productNames     = By.className("inventory_item_name");
@@ -33,107 +34,75 @@ public class HomeTests {
     private final By productDetail    = By.className("inventory_details");
 
     // Constants
-    private static final String BASE_URL         = "https://www.saucedemo.com/";
-    private static final String STANDARD_USER    = "standard_user";
-    private static final String SECRET_SAUCE     = "secret_sauce";
     private static final Duration TIMEOUT        = Duration.ofSeconds(10);
 
-    @BeforeClass
-    public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
-    }
-
     @BeforeMethod
     public void setUp() {
-        ChromeOptions options = new ChromeOptions();
-
-
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("credentials_enable_service", false);
-        prefs.put("profile.password_manager_enabled", false);
-        options.setExperimentalOption("prefs", prefs);
-
-
-        options.setExperimentalOption("excludeSwitches",
-                Arrays.asList("enable-automation", "enable-logging"));
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-notifications", "--incognito");
-
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.get(BASE_URL);
-
-        wait = new WebDriverWait(driver, TIMEOUT);
-
         // Precondition: login and wait for inventory page
-        login(STANDARD_USER, SECRET_SAUCE);
-        wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
+        Preconditions.check(Preconditions.LOGIN, () -> {
+            AuthService.login(driver);
+            wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
+        });
     }
 
-    @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
+    // Helper methods
+    private WebElement waitForVisibility(By locator) {
+        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
     }
 
-    // Helper methods
-    private void login(String user, String pass) {
-        driver.findElement(usernameInput).sendKeys(user);
-        driver.findElement(passwordInput).sendKeys(pass);
-        driver.findElement(loginButton).click();
+    private List<ItemRow> sortProducts(String value) {
+        new Select(waitForVisibility(sortContainer)).selectByValue(value);
+        return wait.until(ItemRows.present());
     }
 
-    private WebElement waitForVisibility(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+    private static <T> List<T> sorted(List<T> values, Comparator<T> order) {
+        return values.stream().sorted(order).toList();
     }
 
     // TC03: Verify sorting products A to Z works correctly
     @Test
     public void testNameAToZSorting() {
-        Select sortDropdown = new Select(waitForVisibility(sortContainer));
-        sortDropdown.selectByValue("az");  // TC03.1
-        List<WebElement> names = wait.until(
-                ExpectedConditions.visibilityOfAllElementsLocatedBy(productNames)
-        );
-        Assert.assertEquals(names.get(0).getText(), "Sauce Labs Backpack",
+        List<ItemRow> rows = sortProducts("az");  // TC03.1
+        List<String> names = ItemRows.names(rows);
+        Assert.assertEquals(names.get(0), "Sauce Labs Backpack",
                 "First product should be 'Sauce Labs Backpack' after A to Z sorting"); // TC03.2
+        Assert.assertEquals(names, sorted(names, Comparator.<String>naturalOrder()),
+                "All products should be in A to Z order"); // TC03.3
     }
 
     // TC12: Verify sorting products Z to A works correctly
     @Test
     public void testNameZToASorting() {
-        Select sortDropdown = new Select(waitForVisibility(sortContainer));
-        sortDropdown.selectByValue("za");  // TC12.1
-        List<WebElement> names = wait.until(
-                ExpectedConditions.visibilityOfAllElementsLocatedBy(productNames)
-        );
-        Assert.assertEquals(names.get(0).getText(), "Test.allTheThings() T-Shirt (Red)",
+        List<ItemRow> rows = sortProducts("za");  // TC12.1
+        List<String> names = ItemRows.names(rows);
+        Assert.assertEquals(names.get(0), "Test.allTheThings() T-Shirt (Red)",
                 "First product should be 'Test.allTheThings() T-Shirt (Red)' after Z to A sorting"); // TC12.2
+        Assert.assertEquals(names, sorted(names, Comparator.<String>naturalOrder().reversed()),
+                "All products should be in Z to A order"); // TC12.3
     }
 
     // TC13: Verify sorting products Price (High to Low) works correctly
     @Test
     public void testPriceHighToLowSorting() {
-        Select sortDropdown = new Select(waitForVisibility(sortContainer));
-        sortDropdown.selectByValue("hilo");  // TC13.1
-        List<WebElement> names = wait.until(
-                ExpectedConditions.visibilityOfAllElementsLocatedBy(productNames)
-        );
-        Assert.assertEquals(names.get(0).getText(), "Sauce Labs Fleece Jacket",
+        List<ItemRow> rows = sortProducts("hilo");  // TC13.1
+        List<String> names = ItemRows.names(rows);
+        Assert.assertEquals(names.get(0), "Sauce Labs Fleece Jacket",
                 "First product should be 'Sauce Labs Fleece Jacket' after High to Low sorting"); // TC13.2
+        List<BigDecimal> prices = ItemRows.prices(rows);
+        Assert.assertEquals(prices, sorted(prices, Comparator.<BigDecimal>naturalOrder().reversed()),
+                "All products should be in High to Low price order"); // TC13.3
     }
 
     // TC14: Verify sorting products Price (Low to High) works correctly
     @Test
     public void testPriceLowToHighSorting() {
-        Select sortDropdown = new Select(waitForVisibility(sortContainer));
-        sortDropdown.selectByValue("lohi");  // TC14.1
-        List<WebElement> names = wait.until(
-                ExpectedConditions.visibilityOfAllElementsLocatedBy(productNames)
-        );
-        Assert.assertEquals(names.get(0).getText(), "Sauce Labs Onesie",
+        List<ItemRow> rows = sortProducts("lohi");  // TC14.1
+        List<String> names = ItemRows.names(rows);
+        Assert.assertEquals(names.get(0), "Sauce Labs Onesie",
                 "First product should be 'Sauce Labs Onesie' after Low to High sorting"); // TC14.2
+        List<BigDecimal> prices = ItemRows.prices(rows);
+        Assert.assertEquals(prices, sorted(prices, Comparator.<BigDecimal>naturalOrder()),
+                "All products should be in Low to High price order"); // TC14.3
     }
 
     // TC15: Verify "Add to Cart" functionality for product 1
@@ -177,8 +146,7 @@ public class HomeTests {
     public void testCartCounterAfterRemoving() {
         driver.findElement(addToCartBtn).click();
         driver.findElement(removeBtn).click();
-        List<WebElement> badge = driver.findElements(cartBadge);
-        Assert.assertTrue(badge.isEmpty(),
+        DomState.assertAbsent(driver, cartBadge, TIMEOUT,
                 "Cart badge should not be visible after removing product"); // TC47.1
     }
 }
@@ -1,35 +1,37 @@
 package tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import auth.AuthService;
+import breaker.Preconditions;
+import checkpoints.Checkpoint;
+import checkpoints.StartsAt;
+import dom.ItemRow;
+import dom.ItemRows;
+import drivers.DriverRegistry;
+import listeners.FlowScheduler;
+import listeners.SessionListener;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.*;
+import perf.PerfProbe;
+import waits.DomState;
 
+import java.lang.reflect.Method;
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
+@Listeners({SessionListener.class, FlowScheduler.class})
 public class IntegrationTests {
-    private WebDriver driver;
-    private WebDriverWait wait;
+    private final WebDriver driver = DriverRegistry.driver();
+    private final WebDriverWait wait = DriverRegistry.driverWait(TIMEOUT);
 
     // Locators
-    private final By usernameInput               = By.id("user-name");
-    private final By passwordInput               = By.id("password");
-    private final By loginButton                 = By.id("login-button");
     private final String addToCartXPathTemplate  =
             "//div[text()='%s']/ancestor::div[@class='inventory_item']//button[contains(text(), 'Add to cart')]";
     private final By cartLink                    = By.className("shopping_cart_link");
     private final By cartBadge                   = By.className("shopping_cart_badge");
     private final By inventoryItemName           = By.className("inventory_item_name");
-    private final By inventoryItemPrice          = By.className("inventory_item_price");
     private final By checkoutButton              = By.id("checkout");
     private final By firstNameInput              = By.id("first-name");
     private final By lastNameInput               = By.id("last-name");
@@ -41,82 +43,44 @@ public class IntegrationTests {
     private final By completeHeader              = By.className("complete-header");
 
     // Constants
-    private static final String BASE_URL         = "https://www.saucedemo.com/";
-    private static final String STANDARD_USER    = "standard_user";
-    private static final String SECRET_SAUCE     = "secret_sauce";
     private static final Duration TIMEOUT        = Duration.ofSeconds(10);
 
-    @BeforeClass
-    public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
-    }
-
     @BeforeMethod
-    public void setUp() {
-        ChromeOptions options = new ChromeOptions();
-
-        // Disable password manager prompts
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("credentials_enable_service", false);
-        prefs.put("profile.password_manager_enabled", false);
-        options.setExperimentalOption("prefs", prefs);
-
-        // Hide Selenium automation flags
-        options.setExperimentalOption("excludeSwitches",
-                Arrays.asList("enable-automation", "enable-logging"));
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-notifications", "--incognito");
-
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.get(BASE_URL);
-
-        wait = new WebDriverWait(driver, TIMEOUT);
-
-        // Precondition: login and wait for products page
-        login(STANDARD_USER, SECRET_SAUCE);
-        wait.until(ExpectedConditions.visibilityOfElementLocated(productSort));
-    }
-
-    @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
+    public void setUp(Method method) {
+        // A test that starts at a checkpoint logs in as part of restoring it
+        if (FlowScheduler.hasFlow(method)) {
+            return;
         }
+        // Precondition: login and wait for products page
+        Preconditions.check(Preconditions.LOGIN, () -> {
+            AuthService.login(driver);
+            wait.until(ExpectedConditions.visibilityOfElementLocated(productSort));
+        });
     }
 
     // Helper methods
-    private void login(String user, String pass) {
-        driver.findElement(usernameInput).sendKeys(user);
-        driver.findElement(passwordInput).sendKeys(pass);
-        driver.findElement(loginButton).click();
-    }
-
     private void addToCart(String productName) {
         By locator = By.xpath(String.format(addToCartXPathTemplate, productName));
-        wait.until(ExpectedConditions.elementToBeClickable(locator)).click();
+        Preconditions.check(Preconditions.ADD_TO_CART,
+                () -> wait.until(ExpectedConditions.elementToBeClickable(locator)).click());
     }
 
     private String getCartBadgeCount() {
-        try {
-            return wait.until(ExpectedConditions
-                            .visibilityOfElementLocated(cartBadge))
-                    .getText();
-        } catch (TimeoutException | NoSuchElementException e) {
-            return "0";
-        }
+        return DomState.settledText(driver, cartBadge, "0", TIMEOUT);
     }
 
     private void startCheckout() {
-        driver.findElement(cartLink).click();
-        wait.until(ExpectedConditions.elementToBeClickable(checkoutButton)).click();
+        Preconditions.check(Preconditions.CHECKOUT_START, () -> {
+            PerfProbe.transition(driver, () -> driver.findElement(cartLink).click());
+            PerfProbe.transition(driver, () -> wait.until(ExpectedConditions.elementToBeClickable(checkoutButton)).click());
+        });
     }
 
     private void fillCheckoutInfo(String first, String last, String zip) {
         driver.findElement(firstNameInput).sendKeys(first);
         driver.findElement(lastNameInput).sendKeys(last);
         driver.findElement(postalCodeInput).sendKeys(zip);
-        driver.findElement(continueButton).click();
+        PerfProbe.transition(driver, () -> driver.findElement(continueButton).click());
     }
 
     private boolean isCheckoutCompleteDisplayed() {
@@ -132,8 +96,7 @@ public class IntegrationTests {
     private List<String> getCartProductNames() {
         driver.findElement(cartLink).click();
         wait.until(ExpectedConditions.visibilityOfElementLocated(cartLink));
-        List<WebElement> items = driver.findElements(inventoryItemName);
-        return items.stream().map(WebElement::getText).collect(Collectors.toList());
+        return ItemRows.names(ItemRows.read(driver));
     }
 
     // INT01: Add product to cart and verify
@@ -154,22 +117,16 @@ public class IntegrationTests {
     public void testProductDetailsInCheckout() {
         addToCart("Sauce Labs Backpack");
         driver.findElement(cartLink).click();
-        String cartName  = wait.until(ExpectedConditions
-                .visibilityOfElementLocated(inventoryItemName)).getText();
-        String cartPrice = wait.until(ExpectedConditions
-                .visibilityOfElementLocated(inventoryItemPrice)).getText();
+        ItemRow cartRow = wait.until(ItemRows.present()).get(0);
 
         startCheckout();
         fillCheckoutInfo("Mohamed", "Ali", "12345");
 
-        String chkName  = wait.until(ExpectedConditions
-                .visibilityOfElementLocated(inventoryItemName)).getText();
-        String chkPrice = wait.until(ExpectedConditions
-                .visibilityOfElementLocated(inventoryItemPrice)).getText();
+        ItemRow chkRow = wait.until(ItemRows.present()).get(0);
 
-        Assert.assertEquals(chkName, cartName,
+        Assert.assertEquals(chkRow.name(), cartRow.name(),
                 "INT03: Product name should match in checkout");
-        Assert.assertEquals(chkPrice, cartPrice,
+        Assert.assertEquals(chkRow.priceText(), cartRow.priceText(),
                 "INT03: Product price should match in checkout");
     }
 
@@ -181,17 +138,15 @@ public class IntegrationTests {
         wait.until(ExpectedConditions.elementToBeClickable(
                 By.id("logout_sidebar_link"))).click();
 
-        login(STANDARD_USER, SECRET_SAUCE);
+        AuthService.login(driver);
         Assert.assertEquals(getCartBadgeCount(), "1",
                 "INT05: Cart badge should still show 1 item after re-login");
     }
 
     // INT09: Checkout completion updates inventory
     @Test
+    @StartsAt(Checkpoint.CHECKOUT_STEP_TWO)
     public void testCheckoutCompletionUpdatesInventory() {
-        addToCart("Sauce Labs Backpack");
-        startCheckout();
-        fillCheckoutInfo("Mohamed", "Ali", "12345");
         wait.until(ExpectedConditions.elementToBeClickable(finishButton)).click();
         Assert.assertTrue(isCheckoutCompleteDisplayed(),
                 "INT09: Checkout complete page should be displayed");
@@ -199,4 +154,4 @@ public class IntegrationTests {
         Assert.assertEquals(getCartBadgeCount(), "0",
                 "INT09: Cart should be empty after checkout");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
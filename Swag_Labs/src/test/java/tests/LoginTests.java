@@ -1,23 +1,26 @@
 package tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import data.DataRows;
+import drivers.Browserless;
+import drivers.DriverRegistry;
+import listeners.SessionListener;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
+import org.testng.ITestContext;
 import org.testng.annotations.*;
+import perf.PerfProbe;
 
+import java.lang.reflect.Method;
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Iterator;
 
+@Listeners(SessionListener.class)
 public class LoginTests {
 
-    private WebDriver driver;
-    private WebDriverWait wait;
+    private final WebDriver driver = DriverRegistry.driver();
+    private final WebDriverWait wait = DriverRegistry.driverWait(TIMEOUT);
 
     // Locators
     private final By usernameInput  = By.id("user-name");
@@ -27,52 +30,17 @@ public class LoginTests {
     private final By errorMessage   = By.cssSelector("[data-test='error']");
 
     // Constants
-    private static final String BASE_URL           = "https://www.saucedemo.com/";
     private static final String TITLE              = "Swag Labs";
     private static final String PLACEHOLDER_USER   = "Username";
     private static final String PLACEHOLDER_PASS   = "Password";
     private static final Duration TIMEOUT          = Duration.ofSeconds(10);
-
-    @BeforeClass
-    public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
-    }
-
-    @BeforeMethod
-    public void setUp() {
-        ChromeOptions options = new ChromeOptions();
-
-
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("credentials_enable_service", false);
-        prefs.put("profile.password_manager_enabled", false);
-        options.setExperimentalOption("prefs", prefs);
-
-
-        options.setExperimentalOption("excludeSwitches",
-                Arrays.asList("enable-automation", "enable-logging"));
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-notifications", "--incognito");
-
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.get(BASE_URL);
-
-        wait = new WebDriverWait(driver, TIMEOUT);
-    }
-
-    @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
-    }
+    private static final String INVALID_LOGINS     = "data/invalid-logins.csv";
 
     // Helper methods
     private void login(String username, String password) {
         driver.findElement(usernameInput).sendKeys(username);
         driver.findElement(passwordInput).sendKeys(password);
-        driver.findElement(loginButton).click();
+        PerfProbe.transition(driver, () -> driver.findElement(loginButton).click());
     }
 
     private String getErrorText() {
@@ -128,19 +96,15 @@ public class LoginTests {
                 "TC55: Page title should be 'Swag Labs'.");
     }
 
-    // DataProvider for invalid login scenarios
-    @DataProvider(name = "invalidLogins")
-    public Object[][] invalidLoginData() {
-        return new Object[][] {
-                {"standard_user",    "",               "Password is required"},
-                {"",                 "secret_sauce",   "Username is required"},
-                {"invalid_user",     "invalid_pass",   "Username and password do not match"},
-                {"locked_out_user",  "secret_sauce",   "Sorry, this user has been locked out"}
-        };
+    // DataProvider for invalid login scenarios: username, password, expected error
+    @DataProvider(name = "invalidLogins", parallel = true)
+    public Iterator<Object[]> invalidLoginData(ITestContext context, Method test) {
+        return DataRows.csv(INVALID_LOGINS).parallel(context, test);
     }
 
     // TC46/47/50/52: Invalid login scenarios using data-driven approach
     @Test(dataProvider = "invalidLogins")
+    @Browserless
     public void testInvalidLoginScenarios(String user, String pass, String expectedError) {
         login(user, pass);
         String actualError = getErrorText();
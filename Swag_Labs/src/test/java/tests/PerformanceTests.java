@@ -0,0 +1,134 @@
+package tests;
+
+import config.Config;
+import drivers.DriverRegistry;
+import listeners.SessionListener;
+import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.annotations.*;
+import perf.PageTiming;
+import perf.PerfProbe;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Listeners(SessionListener.class)
+public class PerformanceTests {
+    private final WebDriver driver = DriverRegistry.driver();
+    private final WebDriverWait wait = DriverRegistry.driverWait(TIMEOUT);
+
+    // Locators
+    private final By usernameInput        = By.id("user-name");
+    private final By passwordInput        = By.id("password");
+    private final By loginButton          = By.id("login-button");
+    private final By inventoryList        = By.className("inventory_list");
+    private final By addBackpackButton    = By.id("add-to-cart-sauce-labs-backpack");
+    private final By cartLink             = By.className("shopping_cart_link");
+    private final By checkoutButton       = By.id("checkout");
+    private final By firstNameInput       = By.id("first-name");
+    private final By lastNameInput        = By.id("last-name");
+    private final By postalCodeInput      = By.id("postal-code");
+    private final By continueButton       = By.id("continue");
+    private final By finishButton         = By.id("finish");
+    private final By backToProductsButton = By.id("back-to-products");
+
+    // Constants
+    private static final String STANDARD_USER    = "standard_user";
+    private static final String GLITCH_USER      = "performance_glitch_user";
+    private static final String SECRET_SAUCE     = "secret_sauce";
+    private static final String DELTA_REPORT     = "perf-delta.csv";
+    private static final Duration TIMEOUT        = Duration.ofSeconds(10);
+
+    // Page timings of each user's run, in the order the flow visits the pages
+    private static final Map<String, List<PageTiming>> TIMINGS_BY_USER = new ConcurrentHashMap<>();
+
+    // Helper methods
+    private void login(String username) {
+        driver.findElement(usernameInput).sendKeys(username);
+        driver.findElement(passwordInput).sendKeys(SECRET_SAUCE);
+        PerfProbe.transition(driver, () -> driver.findElement(loginButton).click());
+        wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
+    }
+
+    private void checkOutBackpack() {
+        wait.until(ExpectedConditions.elementToBeClickable(addBackpackButton)).click();
+        PerfProbe.transition(driver, () -> driver.findElement(cartLink).click());
+        PerfProbe.transition(driver, () -> wait.until(ExpectedConditions.elementToBeClickable(checkoutButton)).click());
+        driver.findElement(firstNameInput).sendKeys("Mohamed");
+        driver.findElement(lastNameInput).sendKeys("Ali");
+        driver.findElement(postalCodeInput).sendKeys("12345");
+        PerfProbe.transition(driver, () -> driver.findElement(continueButton).click());
+        PerfProbe.transition(driver, () -> wait.until(ExpectedConditions.elementToBeClickable(finishButton)).click());
+    }
+
+    private void backToProducts() {
+        PerfProbe.transition(driver, () -> wait.until(ExpectedConditions.elementToBeClickable(backToProductsButton)).click());
+        wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
+    }
+
+    private static double transitionMs(List<PageTiming> timings, int index) {
+        return index < timings.size() ? timings.get(index).transition() : Double.NaN;
+    }
+
+    // DataProvider for the users whose page timings are compared
+    @DataProvider(name = "users")
+    public Object[][] usersData() {
+        return new Object[][] {
+                {STANDARD_USER},
+                {GLITCH_USER}
+        };
+    }
+
+    // PERF01: Page transitions along the purchase flow stay within budget
+    @Test(dataProvider = "users")
+    public void testPurchaseFlowPageTimings(String user) {
+        if (GLITCH_USER.equals(user)) {
+            // Slow on purpose; it is measured for the comparison, not held to the budgets
+            PerfProbe.reportOnly();
+        }
+        login(user);
+        checkOutBackpack();
+        backToProducts();
+        TIMINGS_BY_USER.put(user, PerfProbe.timings());
+        Assert.assertTrue(driver.getCurrentUrl().endsWith("inventory.html"),
+                "PERF01: Back to products should return to the inventory page");
+    }
+
+    // PERF02: Latency delta between performance_glitch_user and standard_user, per page
+    @AfterClass(alwaysRun = true)
+    public void reportLatencyDelta() throws IOException {
+        List<PageTiming> standard = TIMINGS_BY_USER.getOrDefault(STANDARD_USER, List.of());
+        List<PageTiming> glitch = TIMINGS_BY_USER.getOrDefault(GLITCH_USER, List.of());
+        if (standard.isEmpty() || glitch.isEmpty()) {
+            System.out.println("PERF02: No latency delta, one of the users did not finish the flow");
+            return;
+        }
+        List<String> rows = new ArrayList<>();
+        rows.add("page,standardMs,glitchMs,deltaMs");
+        double totalDelta = 0;
+        for (int i = 0; i < Math.max(standard.size(), glitch.size()); i++) {
+            String page = (i < standard.size() ? standard : glitch).get(i).page();
+            double delta = transitionMs(glitch, i) - transitionMs(standard, i);
+            if (!Double.isNaN(delta)) {
+                totalDelta += delta;
+            }
+            rows.add(String.format(Locale.ROOT, "%s,%.1f,%.1f,%.1f",
+                    page, transitionMs(standard, i), transitionMs(glitch, i), delta));
+            System.out.printf(Locale.ROOT, "PERF02: %-24s standard %7.1f ms  glitch %7.1f ms  delta %+7.1f ms%n",
+                    page, transitionMs(standard, i), transitionMs(glitch, i), delta);
+        }
+        System.out.printf(Locale.ROOT, "PERF02: performance_glitch_user is %+.1f ms slower over the flow%n", totalDelta);
+        Path dir = Config.outputDir();
+        Files.createDirectories(dir);
+        Files.write(dir.resolve(DELTA_REPORT), rows);
+    }
+}
@@ -1,21 +1,29 @@
 package tests;
 
+import auth.AuthService;
+import breaker.Preconditions;
+import data.DataRows;
+import drivers.DriverRegistry;
+import listeners.SessionListener;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
+import org.testng.ITestContext;
 import org.testng.annotations.*;
+import perf.PerfProbe;
+import waits.DomState;
 
+import java.lang.reflect.Method;
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Iterator;
 
+@Listeners(SessionListener.class)
 public class ProductDetailTests {
-    private WebDriver driver;
-    private WebDriverWait wait;
+    private static final String PRODUCT_DETAILS = "data/product-details.json";
+
+    private final WebDriver driver = DriverRegistry.driver();
+    private final WebDriverWait wait = DriverRegistry.driverWait(Duration.ofSeconds(10));
 
     @BeforeClass
     public void beforeClass() {
@@ -24,75 +32,17 @@ public class ProductDetailTests {
 
     @BeforeMethod
     public void setUp() {
-        // Set the path to the ChromeDriver executable
-        System.setProperty("webdriver.chrome.driver",
-                "C:\\Users\\user\\Downloads\\chromedriver-win64\\chromedriver.exe");
-
-        // Configure ChromeOptions
-        ChromeOptions options = new ChromeOptions();
-
-        // 1. Disable Chrome's built-in password manager entirely
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("credentials_enable_service", false);
-        prefs.put("profile.password_manager_enabled", false);
-        options.setExperimentalOption("prefs", prefs);
-
-        // 2. Suppress the “Chrome is being controlled by automated test software” infobar
-        options.setExperimentalOption("excludeSwitches",
-                Arrays.asList("enable-automation", "enable-logging"));
-        options.setExperimentalOption("useAutomationExtension", false);
-
-        // 3. Disable notifications and run in incognito
-        options.addArguments("--disable-notifications");
-        options.addArguments("--incognito");
-
-        // Initialize ChromeDriver with configured options
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-
-        // Navigate to SauceDemo login page
-        driver.get("https://www.saucedemo.com/");
-        wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-
-        // Perform login
-        login("standard_user", "secret_sauce");
-
-        // If a JS alert appears, accept it
-        try {
-            Alert alert = driver.switchTo().alert();
-            alert.accept();
-        } catch (NoAlertPresentException ignored) {
-        }
-
-        // If an HTML modal appears (e.g., “Change your password”), close it
-        try {
-            WebElement closeBtn = driver.findElement(By.cssSelector(".modal__close"));
-            if (closeBtn.isDisplayed()) {
-                closeBtn.click();
-            }
-        } catch (NoSuchElementException ignored) {
-        }
-
-        // Verify products page is displayed
-        Assert.assertTrue(isProductsPageDisplayed(), "Login failed or products page not displayed");
-    }
+        Preconditions.check(Preconditions.LOGIN, () -> {
+            // Perform login (session cookie, so no login form and no password-manager alert or modal)
+            AuthService.login(driver);
 
-    @AfterMethod
-    public void tearDown() {
-        // Close the browser
-        if (driver != null) {
-            driver.quit();
-        }
+            // Verify products page is displayed
+            Assert.assertTrue(isProductsPageDisplayed(), "Login failed or products page not displayed");
+        });
     }
 
     // Helpers
 
-    private void login(String username, String password) {
-        driver.findElement(By.id("user-name")).sendKeys(username);
-        driver.findElement(By.id("password")).sendKeys(password);
-        driver.findElement(By.id("login-button")).click();
-    }
-
     private boolean isProductsPageDisplayed() {
         try {
             return wait.until(ExpectedConditions
@@ -152,122 +102,75 @@ public class ProductDetailTests {
     }
 
     private String getCartBadgeCount() {
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(By.className("shopping_cart_badge"))).getText();
-        } catch (Exception e) {
-            return "0";
-        }
+        return DomState.settledText(driver, By.className("shopping_cart_badge"), "0", Duration.ofSeconds(10));
     }
 
     private void clickBackToProducts() {
         By backToProductsButton = By.id("back-to-products");
-        wait.until(ExpectedConditions.elementToBeClickable(backToProductsButton)).click();
+        PerfProbe.transition(driver, () -> wait.until(ExpectedConditions.elementToBeClickable(backToProductsButton)).click());
     }
 
     // Test Cases
 
-    @Test
-    public void testTC01VerifyBackpackDetails() {
-        selectProduct("Sauce Labs Backpack");
-        Assert.assertTrue(isProductDetailsDisplayed(), "TC01: Product details should be displayed");
-        Assert.assertEquals(getProductName(), "Sauce Labs Backpack", "TC01: Product name does not match");
-        clickBackToProducts();
-    }
-
-    @Test
-    public void testTC02VerifyBikeLightDetails() {
-        selectProduct("Sauce Labs Bike Light");
-        Assert.assertTrue(isProductDetailsDisplayed(), "TC02: Product details should be displayed");
-        Assert.assertEquals(getProductName(), "Sauce Labs Bike Light", "TC02: Product name does not match");
-        clickBackToProducts();
-    }
-
-    @Test
-    public void testTC03VerifyBoltTShirtDetails() {
-        selectProduct("Sauce Labs Bolt T-Shirt");
-        Assert.assertTrue(isProductDetailsDisplayed(), "TC03: Product details should be displayed");
-        Assert.assertEquals(getProductName(), "Sauce Labs Bolt T-Shirt", "TC03: Product name does not match");
-        clickBackToProducts();
-    }
-
-    @Test
-    public void testTC04VerifyFleeceJacketDetails() {
-        selectProduct("Sauce Labs Fleece Jacket");
-        Assert.assertTrue(isProductDetailsDisplayed(), "TC04: Product details should be displayed");
-        Assert.assertEquals(getProductName(), "Sauce Labs Fleece Jacket", "TC04: Product name does not match");
-        clickBackToProducts();
+    // DataProviders: rows of data/product-details.json for one kind of check, as (case, product)
+    @DataProvider(name = "productDetails", parallel = true)
+    public Iterator<Object[]> productDetailsData(ITestContext context, Method test) {
+        return productRows("details").parallel(context, test);
     }
 
-    @Test
-    public void testTC05VerifyOnesieDetails() {
-        selectProduct("Sauce Labs Onesie");
-        Assert.assertTrue(isProductDetailsDisplayed(), "TC05: Product details should be displayed");
-        Assert.assertEquals(getProductName(), "Sauce Labs Onesie", "TC05: Product name does not match");
-        clickBackToProducts();
+    @DataProvider(name = "addToCart", parallel = true)
+    public Iterator<Object[]> addToCartData(ITestContext context, Method test) {
+        return productRows("add-to-cart").parallel(context, test);
     }
 
-    @Test
-    public void testTC06VerifyRedTShirtDetails() {
-        selectProduct("Test.allTheThings() T-Shirt (Red)");
-        Assert.assertTrue(isProductDetailsDisplayed(), "TC06: Product details should be displayed");
-        Assert.assertEquals(getProductName(), "Test.allTheThings() T-Shirt (Red)", "TC06: Product name does not match");
-        clickBackToProducts();
+    @DataProvider(name = "removeFromCart", parallel = true)
+    public Iterator<Object[]> removeFromCartData(ITestContext context, Method test) {
+        return productRows("remove-from-cart").parallel(context, test);
     }
 
-    @Test
-    public void testTC07AddBackpackToCart() {
-        selectProduct("Sauce Labs Backpack");
-        addToCart();
-        Assert.assertEquals(getCartBadgeCount(), "1", "TC07: Cart badge should show 1 item");
-        clickBackToProducts();
+    @DataProvider(name = "backToProducts", parallel = true)
+    public Iterator<Object[]> backToProductsData(ITestContext context, Method test) {
+        return productRows("back-to-products").parallel(context, test);
     }
 
-    @Test
-    public void testTC08AddBikeLightToCart() {
-        selectProduct("Sauce Labs Bike Light");
-        addToCart();
-        Assert.assertEquals(getCartBadgeCount(), "1", "TC08: Cart badge should show 1 item");
-        clickBackToProducts();
+    private static DataRows productRows(String check) {
+        return DataRows.json(PRODUCT_DETAILS, row -> check.equals(row.get("check")), "case", "product");
     }
 
-    @Test
-    public void testTC09AddBoltTShirtToCart() {
-        selectProduct("Sauce Labs Bolt T-Shirt");
-        addToCart();
-        Assert.assertEquals(getCartBadgeCount(), "1", "TC09: Cart badge should show 1 item");
+    // TC01-TC06: Product details page shows the selected product
+    @Test(dataProvider = "productDetails")
+    public void testVerifyProductDetails(String tc, String product) {
+        selectProduct(product);
+        Assert.assertTrue(isProductDetailsDisplayed(), tc + ": Product details should be displayed");
+        Assert.assertEquals(getProductName(), product, tc + ": Product name does not match");
         clickBackToProducts();
     }
 
-    @Test
-    public void testTC10RemoveBackpackFromCart() {
-        selectProduct("Sauce Labs Backpack");
+    // TC07-TC09: Adding a product from its details page
+    @Test(dataProvider = "addToCart")
+    public void testAddProductToCart(String tc, String product) {
+        selectProduct(product);
         addToCart();
-        removeFromCart();
-        Assert.assertEquals(getCartBadgeCount(), "0", "TC10: Cart badge should show 0 items");
+        Assert.assertEquals(getCartBadgeCount(), "1", tc + ": Cart badge should show 1 item");
         clickBackToProducts();
     }
 
-    @Test
-    public void testTC11RemoveBikeLightFromCart() {
-        selectProduct("Sauce Labs Bike Light");
+    // TC10-TC11: Removing a product from its details page
+    @Test(dataProvider = "removeFromCart")
+    public void testRemoveProductFromCart(String tc, String product) {
+        selectProduct(product);
         addToCart();
         removeFromCart();
-        Assert.assertEquals(getCartBadgeCount(), "0", "TC11: Cart badge should show 0 items");
-        clickBackToProducts();
-    }
-
-    @Test
-    public void testTC12BackToProductsFromBackpack() {
-        selectProduct("Sauce Labs Backpack");
+        Assert.assertEquals(getCartBadgeCount(), "0", tc + ": Cart badge should show 0 items");
         clickBackToProducts();
-        Assert.assertTrue(isProductsPageDisplayed(), "TC12: Should return to products page");
     }
 
-    @Test
-    public void testTC13BackToProductsFromBikeLight() {
-        selectProduct("Sauce Labs Bike Light");
+    // TC12-TC13: Back to products from a details page
+    @Test(dataProvider = "backToProducts")
+    public void testBackToProductsFromDetails(String tc, String product) {
+        selectProduct(product);
         clickBackToProducts();
-        Assert.assertTrue(isProductsPageDisplayed(), "TC13: Should return to products page");
+        Assert.assertTrue(isProductsPageDisplayed(), tc + ": Should return to products page");
     }
 
     @Test
@@ -1,27 +1,26 @@
 package tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import auth.AuthService;
+import breaker.Preconditions;
+import drivers.AllowResources;
+import drivers.DriverRegistry;
+import drivers.ResourceClass;
+import listeners.SessionListener;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.*;
+import waits.DomState;
 
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
+@Listeners(SessionListener.class)
 public class ProductDetailTests_2 {
-    private WebDriver driver;
-    private WebDriverWait wait;
+    private final WebDriver driver = DriverRegistry.driver();
+    private final WebDriverWait wait = DriverRegistry.driverWait(TIMEOUT);
 
     // Locators
-    private final By usernameInput       = By.id("user-name");
-    private final By passwordInput       = By.id("password");
-    private final By loginButton         = By.id("login-button");
     private final By inventoryList       = By.className("inventory_list");
     private final By productLinkTemplate = By.xpath("//a[contains(., '%s')]");
     private final By addToCartButton     = By.cssSelector("button.btn.btn_primary.btn_small.btn_inventory");
@@ -32,51 +31,18 @@ public class ProductDetailTests_2 {
     private final By cartBadge           = By.className("shopping_cart_badge");
 
     // Constants
-    private static final String BASE_URL      = "https://www.saucedemo.com/";
-    private static final String STANDARD_USER = "standard_user";
-    private static final String SECRET_SAUCE  = "secret_sauce";
     private static final Duration TIMEOUT     = Duration.ofSeconds(10);
 
-    @BeforeClass
-    public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
-    }
-
     @BeforeMethod
     public void setUp() {
-        ChromeOptions options = new ChromeOptions();
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("credentials_enable_service", false);
-        prefs.put("profile.password_manager_enabled", false);
-        options.setExperimentalOption("prefs", prefs);
-        options.setExperimentalOption("excludeSwitches", Arrays.asList("enable-automation", "enable-logging"));
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-notifications", "--incognito");
-
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.get(BASE_URL);
-        wait = new WebDriverWait(driver, TIMEOUT);
-
         // Precondition: login and wait for inventory page
-        login(STANDARD_USER, SECRET_SAUCE);
-        wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
-    }
-
-    @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
+        Preconditions.check(Preconditions.LOGIN, () -> {
+            AuthService.login(driver);
+            wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
+        });
     }
 
     // Helper methods
-    private void login(String user, String pass) {
-        driver.findElement(usernameInput).sendKeys(user);
-        driver.findElement(passwordInput).sendKeys(pass);
-        driver.findElement(loginButton).click();
-    }
-
     private void selectProduct(String productName) {
         By locator = By.xpath(String.format(productLinkTemplate.toString().replace("By.xpath: ", ""), productName));
         wait.until(ExpectedConditions.elementToBeClickable(locator)).click();
@@ -87,11 +53,7 @@ public class ProductDetailTests_2 {
     }
 
     private String getCartBadgeCount() {
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(cartBadge)).getText();
-        } catch (TimeoutException | NoSuchElementException e) {
-            return "0";
-        }
+        return DomState.settledText(driver, cartBadge, "0", TIMEOUT);
     }
 
     private boolean isRemoveButtonDisplayed() {
@@ -140,6 +102,7 @@ public class ProductDetailTests_2 {
 
     // TC06: Verify product image visibility on detail page
     @Test
+    @AllowResources(ResourceClass.IMAGES)
     public void testProductImageVisibility() {
         selectProduct("Sauce Labs Backpack");
         Assert.assertTrue(wait.until(ExpectedConditions.visibilityOfElementLocated(productImage)).isDisplayed(),
@@ -1,27 +1,24 @@
 package tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import auth.AuthService;
+import breaker.Preconditions;
+import drivers.DriverRegistry;
+import listeners.SessionListener;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.*;
+import waits.DomState;
 
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
+@Listeners(SessionListener.class)
 public class SidebarTests {
-    private WebDriver driver;
-    private WebDriverWait wait;
+    private final WebDriver driver = DriverRegistry.driver();
+    private final WebDriverWait wait = DriverRegistry.driverWait(TIMEOUT);
 
     // Locators
-    private final By usernameInput          = By.id("user-name");
-    private final By passwordInput          = By.id("password");
-    private final By loginButton            = By.id("login-button");
     private final By burgerMenuButton       = By.id("react-burger-menu-btn");
     private final By logoutLink             = By.id("logout_sidebar_link");
     private final By allItemsLink           = By.id("inventory_sidebar_link");
@@ -32,53 +29,19 @@ public class SidebarTests {
     private final By cartBadge              = By.className("shopping_cart_badge");
 
     // Constants
-    private static final String BASE_URL      = "https://www.saucedemo.com/";
-    private static final String STANDARD_USER = "standard_user";
-    private static final String SECRET_SAUCE  = "secret_sauce";
     private static final Duration TIMEOUT     = Duration.ofSeconds(10);
 
-    @BeforeClass
-    public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
-    }
-
     @BeforeMethod
     public void setUp() {
-        ChromeOptions options = new ChromeOptions();
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("credentials_enable_service", false);
-        prefs.put("profile.password_manager_enabled", false);
-        options.setExperimentalOption("prefs", prefs);
-        options.setExperimentalOption("excludeSwitches",
-                Arrays.asList("enable-automation", "enable-logging"));
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-notifications", "--incognito");
-
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.get(BASE_URL);
-        wait = new WebDriverWait(driver, TIMEOUT);
-
         // Precondition: login and wait for inventory page
-        login(STANDARD_USER, SECRET_SAUCE);
-        wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
-    }
-
-    @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
+        Preconditions.check(Preconditions.LOGIN, () -> {
+            AuthService.login(driver);
+            wait.until(ExpectedConditions.visibilityOfElementLocated(inventoryList));
+        });
     }
 
     // Helper methods
 
-    private void login(String user, String pass) {
-        driver.findElement(usernameInput).sendKeys(user);
-        driver.findElement(passwordInput).sendKeys(pass);
-        driver.findElement(loginButton).click();
-    }
-
     private void openSidebar() {
         wait.until(ExpectedConditions.elementToBeClickable(burgerMenuButton)).click();
     }
@@ -92,11 +55,7 @@ public class SidebarTests {
     }
 
     private String getCartBadgeCount() {
-        try {
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(cartBadge)).getText();
-        } catch (TimeoutException | NoSuchElementException e) {
-            return "0";
-        }
+        return DomState.settledText(driver, cartBadge, "0", TIMEOUT);
     }
 
     // TC01: Hamburger icon presence
@@ -1,22 +1,20 @@
 package tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import drivers.Browserless;
+import drivers.DriverRegistry;
+import listeners.SessionListener;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.*;
 
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
+@Listeners(SessionListener.class)
 public class SystemTests {
-    private WebDriver driver;
-    private WebDriverWait wait;
+    private final WebDriver driver = DriverRegistry.driver();
+    private final WebDriverWait wait = DriverRegistry.driverWait(TIMEOUT);
 
     // Locators
     private final By usernameInput               = By.id("user-name");
@@ -35,46 +33,10 @@ public class SystemTests {
     private final By allItemsLink                = By.id("inventory_sidebar_link");
 
     // Constants
-    private static final String BASE_URL         = "https://www.saucedemo.com/";
     private static final String STANDARD_USER    = "standard_user";
     private static final String SECRET_SAUCE     = "secret_sauce";
     private static final Duration TIMEOUT        = Duration.ofSeconds(10);
 
-    @BeforeClass
-    public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
-    }
-
-    @BeforeMethod
-    public void setUp() {
-        ChromeOptions options = new ChromeOptions();
-
-        // Disable password manager prompts
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("credentials_enable_service", false);
-        prefs.put("profile.password_manager_enabled", false);
-        options.setExperimentalOption("prefs", prefs);
-
-        // Hide Selenium automation flags
-        options.setExperimentalOption("excludeSwitches",
-                Arrays.asList("enable-automation", "enable-logging"));
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-notifications", "--incognito");
-
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.get(BASE_URL);
-
-        wait = new WebDriverWait(driver, TIMEOUT);
-    }
-
-    @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
-    }
-
     // Helper methods
     private void attemptLogin(String user, String pass) {
         driver.findElement(usernameInput).sendKeys(user);
@@ -116,6 +78,7 @@ public class SystemTests {
 
     // SYS03: Verify invalid inputs rejected in Checkout
     @Test
+    @Browserless
     public void testInvalidCheckoutInput() {
         attemptLogin(STANDARD_USER, SECRET_SAUCE);
         wait.until(ExpectedConditions.visibilityOfElementLocated(productSort));
@@ -151,6 +114,7 @@ public class SystemTests {
 
     // SYS08: Verify error message UI on invalid login
     @Test
+    @Browserless
     public void testInvalidLoginError() {
         attemptLogin(STANDARD_USER, "wrong_password");
         Assert.assertTrue(isErrorDisplayed("Epic sadface: Username and password do not match"),
@@ -161,6 +125,7 @@ public class SystemTests {
 
     // SYS10: Verify SQL injection attempt in login
     @Test
+    @Browserless
     public void testSqlInjectionLogin() {
         String maliciousInput = "' OR '1'='1";
         attemptLogin(maliciousInput, maliciousInput);
@@ -169,4 +134,4 @@ public class SystemTests {
         Assert.assertTrue(isOnLoginPage(),
                 "SYS10: SQL injection attempt should not grant access");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file